@@ -0,0 +1,219 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp.core;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+
+/**
+ * Immutable and thread-safe model of one month of a date picker. It holds the
+ * locale, time zone, displayed month, selected date and date constraints and
+ * derives the month grid, week numbers, weekday names and formatting from them.
+ * It only depends on java.base, so grids can be computed on any thread without
+ * initializing AWT and one instance can be shared by many views.
+ * All with... methods return a new instance and leave this one unchanged.
+ */
+public final class CalendarModel {
+    private static final String          MONTH_PATTERN = "MMMM yyyy";
+    private        final Locale          locale;
+    private        final ZoneId          zoneId;
+    private        final YearMonth       yearMonth;
+    private        final LocalDate       selectedDate;
+    private        final DateConstraints dateConstraints;
+    private        final LocaleResources localeResources;
+    private        final MonthLayout     monthLayout;
+    private        final int             disabledDays;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param locale          locale used for the first day of the week, names and formats
+     * @param zoneId          time zone used to determine todays date
+     * @param yearMonth       displayed month
+     * @param selectedDate    selected date or null if no date is selected
+     * @param dateConstraints rules that decide which dates can be selected
+     */
+    public CalendarModel(final Locale locale, final ZoneId zoneId, final YearMonth yearMonth, final LocalDate selectedDate, final DateConstraints dateConstraints) {
+        this.locale          = Objects.requireNonNull(locale, "locale");
+        this.zoneId          = Objects.requireNonNull(zoneId, "zoneId");
+        this.yearMonth       = Objects.requireNonNull(yearMonth, "yearMonth");
+        this.selectedDate    = selectedDate;
+        this.dateConstraints = null == dateConstraints ? DateConstraints.NONE : dateConstraints;
+        this.localeResources = LocaleResources.of(locale);
+        this.monthLayout     = MonthLayout.of(yearMonth, localeResources.getWeekFields());
+        this.disabledDays    = this.dateConstraints.getDisabledDays(yearMonth);
+    }
+
+
+    // ******************** Methods *******************************************
+    public static CalendarModel of(final Locale locale) {
+        return of(locale, ZoneId.systemDefault());
+    }
+    public static CalendarModel of(final Locale locale, final ZoneId zoneId) {
+        return of(locale, TodayService.getInstance().getToday(zoneId), zoneId);
+    }
+    public static CalendarModel of(final Locale locale, final LocalDate selectedDate, final ZoneId zoneId) {
+        return new CalendarModel(locale, zoneId, YearMonth.from(selectedDate), selectedDate, DateConstraints.NONE);
+    }
+
+    public Locale getLocale() { return locale; }
+    public CalendarModel withLocale(final Locale locale) {
+        return locale.equals(this.locale) ? this : new CalendarModel(locale, zoneId, yearMonth, selectedDate, dateConstraints);
+    }
+
+    public ZoneId getZoneId() { return zoneId; }
+    public CalendarModel withZoneId(final ZoneId zoneId) {
+        return zoneId.equals(this.zoneId) ? this : new CalendarModel(locale, zoneId, yearMonth, selectedDate, dateConstraints);
+    }
+
+    public YearMonth getYearMonth() { return yearMonth; }
+    public CalendarModel withYearMonth(final YearMonth yearMonth) {
+        return yearMonth.equals(this.yearMonth) ? this : new CalendarModel(locale, zoneId, yearMonth, selectedDate, dateConstraints);
+    }
+
+    /**
+     * Returns the model of the next month or this model if the next month contains no selectable day
+     * @return the model of the next month or this model if the next month contains no selectable day
+     */
+    public CalendarModel nextMonth() {
+        YearMonth next = yearMonth.plusMonths(1);
+        return dateConstraints.isAllowed(next) ? withYearMonth(next) : this;
+    }
+
+    /**
+     * Returns the model of the previous month or this model if the previous month contains no selectable day
+     * @return the model of the previous month or this model if the previous month contains no selectable day
+     */
+    public CalendarModel previousMonth() {
+        YearMonth previous = yearMonth.minusMonths(1);
+        return dateConstraints.isAllowed(previous) ? withYearMonth(previous) : this;
+    }
+
+    /**
+     * Returns the selected date or null if no date is selected
+     * @return the selected date or null if no date is selected
+     */
+    public LocalDate getSelectedDate() { return selectedDate; }
+
+    /**
+     * Returns a model with the given date selected and its month displayed. If the
+     * date is not allowed by the date constraints this model is returned.
+     * @param selectedDate the date to select or null to clear the selection
+     * @return a model with the given date selected
+     */
+    public CalendarModel withSelectedDate(final LocalDate selectedDate) {
+        if (null == selectedDate) {
+            return null == this.selectedDate ? this : new CalendarModel(locale, zoneId, yearMonth, null, dateConstraints);
+        }
+        if (selectedDate.equals(this.selectedDate) || !dateConstraints.isAllowed(selectedDate)) { return this; }
+        return new CalendarModel(locale, zoneId, YearMonth.from(selectedDate), selectedDate, dateConstraints);
+    }
+
+    public DateConstraints getDateConstraints() { return dateConstraints; }
+    public CalendarModel withDateConstraints(final DateConstraints dateConstraints) {
+        return Objects.equals(dateConstraints, this.dateConstraints) ? this : new CalendarModel(locale, zoneId, yearMonth, selectedDate, dateConstraints);
+    }
+
+    public LocaleResources getLocaleResources() { return localeResources; }
+
+    public MonthLayout getMonthLayout() { return monthLayout; }
+
+    /**
+     * Returns todays date in the time zone of this model according to the TodayService
+     * @return todays date in the time zone of this model
+     */
+    public LocalDate getToday() { return TodayService.getInstance().getToday(zoneId); }
+
+    /**
+     * Returns the date in the given cell of the month grid or null if the cell is empty
+     * @param cell index of the cell in the range of 0 - 41
+     * @return the date in the given cell of the month grid or null if the cell is empty
+     */
+    public LocalDate getDate(final int cell) {
+        int day = monthLayout.getDay(cell);
+        return 0 == day ? null : yearMonth.atDay(day);
+    }
+
+    /**
+     * Returns true if the given day of the displayed month can be selected
+     * @param day day of the displayed month
+     * @return true if the given day of the displayed month can be selected
+     */
+    public boolean isEnabled(final int day) {
+        return day > 0 && day <= monthLayout.getLengthOfMonth() && (disabledDays & (1 << (day - 1))) == 0;
+    }
+
+    /**
+     * Returns true if the given day of the displayed month is the selected date
+     * @param day day of the displayed month
+     * @return true if the given day of the displayed month is the selected date
+     */
+    public boolean isSelected(final int day) {
+        return null != selectedDate && YearMonth.from(selectedDate).equals(yearMonth) && selectedDate.getDayOfMonth() == day;
+    }
+
+    public boolean isWeekend(final int column) { return monthLayout.isWeekend(column); }
+
+    public int getWeekNumber(final int row) { return monthLayout.getWeekNumber(row); }
+
+    public List<String> getWeekDays() { return localeResources.getWeekDays(); }
+
+    public List<String> getWeekDaysLong() { return localeResources.getWeekDaysLong(); }
+
+    /**
+     * Returns the localized name and year of the displayed month e.g. "April 2021"
+     * @return the localized name and year of the displayed month
+     */
+    public String getMonthText() { return DateTimeFormatter.ofPattern(MONTH_PATTERN, locale).format(yearMonth); }
+
+    /**
+     * Returns the given date formatted with the short date format of the locale
+     * @param date the date to format
+     * @return the formatted date or an empty string if date is null
+     */
+    public String format(final LocalDate date) { return localeResources.getDateParser().format(date); }
+
+    /**
+     * Parses the given text with the short date format of the locale
+     * @param text the text to parse
+     * @return the parsed date or null if the text is not a valid date
+     */
+    public LocalDate parse(final String text) { return localeResources.getDateParser().parse(text); }
+
+    @Override public boolean equals(final Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof CalendarModel)) { return false; }
+        CalendarModel that = (CalendarModel) o;
+        return locale.equals(that.locale) && zoneId.equals(that.zoneId) && yearMonth.equals(that.yearMonth) &&
+               Objects.equals(selectedDate, that.selectedDate) && dateConstraints.equals(that.dateConstraints);
+    }
+
+    @Override public int hashCode() {
+        return Objects.hash(locale, zoneId, yearMonth, selectedDate, dateConstraints);
+    }
+
+    @Override public String toString() {
+        return "CalendarModel{" + locale + ", " + zoneId + ", " + yearMonth + ", selected=" + selectedDate + "}";
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp.core;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+
+/**
+ * Immutable set of rules that decide which dates can be selected in a date picker.
+ * Blackout dates are stored in one BitSet per year indexed by the day of year, so
+ * checking a date or a whole month does not depend on the number of blackout dates.
+ */
+public final class DateConstraints {
+    public  static final DateConstraints      NONE     = new DateConstraints(null, null, Collections.emptySet(), Collections.emptyList());
+    private        final LocalDate            minDate;
+    private        final LocalDate            maxDate;
+    private        final int                  disabledDaysOfWeek;
+    private        final Map<Integer, BitSet> blackouts;
+    private        final int                  noOfBlackoutDates;
+
+
+    // ******************** Constructors **************************************
+    public DateConstraints(final LocalDate minDate, final LocalDate maxDate) {
+        this(minDate, maxDate, Collections.emptySet(), Collections.emptyList());
+    }
+    public DateConstraints(final LocalDate minDate, final LocalDate maxDate, final Set<DayOfWeek> disabledDaysOfWeek) {
+        this(minDate, maxDate, disabledDaysOfWeek, Collections.emptyList());
+    }
+    /**
+     * @param minDate            first date that can be selected or null if there is no lower bound
+     * @param maxDate            last date that can be selected or null if there is no upper bound
+     * @param disabledDaysOfWeek days of the week that can never be selected
+     * @param blackoutDates      single dates that can not be selected
+     */
+    public DateConstraints(final LocalDate minDate, final LocalDate maxDate, final Set<DayOfWeek> disabledDaysOfWeek, final Collection<LocalDate> blackoutDates) {
+        if (null != minDate && null != maxDate && minDate.isAfter(maxDate)) {
+            throw new IllegalArgumentException("minDate " + minDate + " is after maxDate " + maxDate);
+        }
+        this.minDate   = minDate;
+        this.maxDate   = maxDate;
+        this.blackouts = new HashMap<>();
+
+        int daysOfWeek = 0;
+        for (DayOfWeek dayOfWeek : disabledDaysOfWeek) {
+            daysOfWeek |= 1 << (dayOfWeek.getValue() - 1);
+        }
+        this.disabledDaysOfWeek = daysOfWeek;
+
+        int noOfDates = 0;
+        for (LocalDate date : blackoutDates) {
+            BitSet year = blackouts.computeIfAbsent(date.getYear(), y -> new BitSet(366));
+            if (!year.get(date.getDayOfYear() - 1)) {
+                year.set(date.getDayOfYear() - 1);
+                noOfDates++;
+            }
+        }
+        this.noOfBlackoutDates = noOfDates;
+    }
+
+
+    // ******************** Methods *******************************************
+    public LocalDate getMinDate() { return minDate; }
+
+    public LocalDate getMaxDate() { return maxDate; }
+
+    public Set<DayOfWeek> getDisabledDaysOfWeek() {
+        Set<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if (isDisabled(dayOfWeek)) { daysOfWeek.add(dayOfWeek); }
+        }
+        return daysOfWeek;
+    }
+
+    /**
+     * Returns all blackout dates in ascending order
+     * @return all blackout dates in ascending order
+     */
+    public List<LocalDate> getBlackoutDates() {
+        List<LocalDate> dates = new ArrayList<>(noOfBlackoutDates);
+        blackouts.keySet().stream().sorted().forEach(year -> {
+            BitSet days = blackouts.get(year);
+            for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+                dates.add(LocalDate.ofYearDay(year, i + 1));
+            }
+        });
+        return dates;
+    }
+
+    public int getNoOfBlackoutDates() { return noOfBlackoutDates; }
+
+    public boolean isAllowed(final LocalDate date) {
+        if (null != minDate && date.isBefore(minDate)) { return false; }
+        if (null != maxDate && date.isAfter(maxDate))  { return false; }
+        if (isDisabled(date.getDayOfWeek()))           { return false; }
+        BitSet days = blackouts.get(date.getYear());
+        return null == days || !days.get(date.getDayOfYear() - 1);
+    }
+
+    /**
+     * Returns true if at least one day of the given month can be selected
+     * @param yearMonth the month to check
+     * @return true if at least one day of the given month can be selected
+     */
+    public boolean isAllowed(final YearMonth yearMonth) {
+        return getDisabledDays(yearMonth) != getAllDays(yearMonth);
+    }
+
+    /**
+     * Returns the days of the given month that can not be selected as a bit mask
+     * where bit 0 stands for the 1st and bit 30 for the 31st of the month.
+     * @param yearMonth the month to check
+     * @return bit mask of the days of the given month that can not be selected
+     */
+    public int getDisabledDays(final YearMonth yearMonth) {
+        int allDays = getAllDays(yearMonth);
+        int length  = yearMonth.lengthOfMonth();
+        if (null != minDate && yearMonth.isBefore(YearMonth.from(minDate))) { return allDays; }
+        if (null != maxDate && yearMonth.isAfter(YearMonth.from(maxDate)))  { return allDays; }
+
+        int disabled = 0;
+        if (null != minDate && yearMonth.equals(YearMonth.from(minDate))) {
+            disabled |= (int) ((1L << (minDate.getDayOfMonth() - 1)) - 1);
+        }
+        if (null != maxDate && yearMonth.equals(YearMonth.from(maxDate))) {
+            disabled |= allDays & ~(int) ((1L << maxDate.getDayOfMonth()) - 1);
+        }
+
+        if (0 != disabledDaysOfWeek) {
+            int offset = yearMonth.atDay(1).getDayOfWeek().getValue() - 1;
+            for (int day = 0; day < length; day++) {
+                if (0 != (disabledDaysOfWeek & (1 << ((offset + day) % 7)))) { disabled |= 1 << day; }
+            }
+        }
+
+        BitSet days = blackouts.get(yearMonth.getYear());
+        if (null != days) {
+            int firstDayOfMonth = yearMonth.atDay(1).getDayOfYear() - 1;
+            int lastDayOfMonth  = firstDayOfMonth + length;
+            for (int i = days.nextSetBit(firstDayOfMonth); i >= 0 && i < lastDayOfMonth; i = days.nextSetBit(i + 1)) {
+                disabled |= 1 << (i - firstDayOfMonth);
+            }
+        }
+        return disabled;
+    }
+
+    public boolean isUnconstrained() {
+        return null == minDate && null == maxDate && 0 == disabledDaysOfWeek && blackouts.isEmpty();
+    }
+
+    @Override public boolean equals(final Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof DateConstraints)) { return false; }
+        DateConstraints that = (DateConstraints) o;
+        return disabledDaysOfWeek == that.disabledDaysOfWeek &&
+               Objects.equals(minDate, that.minDate) &&
+               Objects.equals(maxDate, that.maxDate) &&
+               blackouts.equals(that.blackouts);
+    }
+
+    @Override public int hashCode() {
+        return Objects.hash(minDate, maxDate, disabledDaysOfWeek, blackouts);
+    }
+
+    private boolean isDisabled(final DayOfWeek dayOfWeek) {
+        return 0 != (disabledDaysOfWeek & (1 << (dayOfWeek.getValue() - 1)));
+    }
+
+    private static int getAllDays(final YearMonth yearMonth) {
+        return (int) ((1L << yearMonth.lengthOfMonth()) - 1);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp.core;
+
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Thread-safe parser and formatter for the dates that are typed into a DatePicker.
+ * Parsing never throws, invalid input simply returns null, which makes it cheap enough
+ * to validate the text on every keystroke. The results of the most recently parsed
+ * inputs are cached, so committing a validated text does not parse it again.
+ */
+public final class DateParser {
+    private static final int                    CACHE_SIZE = 256;
+    private static final LocalDate              INVALID    = LocalDate.MIN;
+    private        final DateTimeFormatter      formatter;
+    private        final DateTimeFormatter      parser;
+    private        final Map<String, LocalDate> cache;
+
+
+    // ******************** Constructors **************************************
+    /**
+     * @param formatter the formatter for the dates, text is parsed with the same pattern but
+     *                  case insensitive and lenient, e.g. a four digit year is accepted for "yy"
+     */
+    public DateParser(final DateTimeFormatter formatter) {
+        this.formatter = formatter;
+        this.parser    = new DateTimeFormatterBuilder().parseCaseInsensitive().parseLenient().append(formatter).toFormatter(formatter.getLocale());
+        this.cache     = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(final Map.Entry<String, LocalDate> eldest) { return size() > CACHE_SIZE; }
+        };
+    }
+
+
+    // ******************** Methods *******************************************
+    public DateTimeFormatter getFormatter() { return formatter; }
+
+    public String format(final TemporalAccessor date) { return null == date ? "" : formatter.format(date); }
+
+    /**
+     * Returns the date of the given text or null if the text is not a valid date
+     * @param text the text to parse, leading and trailing whitespace is ignored
+     * @return the date of the given text or null if the text is not a valid date
+     */
+    public LocalDate parse(final String text) {
+        if (null == text) { return null; }
+        synchronized (cache) {
+            LocalDate date = cache.get(text);
+            if (null != date) { return INVALID == date ? null : date; }
+        }
+        LocalDate date = parseUncached(text.trim());
+        synchronized (cache) {
+            cache.put(text, null == date ? INVALID : date);
+        }
+        return date;
+    }
+
+    public boolean isValid(final String text) { return null != parse(text); }
+
+    private LocalDate parseUncached(final String text) {
+        if (text.isEmpty()) { return null; }
+        ParsePosition    position = new ParsePosition(0);
+        TemporalAccessor parsed   = parser.parseUnresolved(text, position);
+        if (null == parsed || position.getErrorIndex() >= 0 || position.getIndex() != text.length()) { return null; }
+
+        // Resolve the fields by hand, the resolver of the formatter reports invalid dates by throwing
+        final long year;
+        if (parsed.isSupported(ChronoField.YEAR)) {
+            year = parsed.getLong(ChronoField.YEAR);
+        } else if (parsed.isSupported(ChronoField.YEAR_OF_ERA)) {
+            year = parsed.getLong(ChronoField.YEAR_OF_ERA);
+        } else {
+            return null;
+        }
+        if (!parsed.isSupported(ChronoField.MONTH_OF_YEAR) || !parsed.isSupported(ChronoField.DAY_OF_MONTH)) { return null; }
+        long month = parsed.getLong(ChronoField.MONTH_OF_YEAR);
+        long day   = parsed.getLong(ChronoField.DAY_OF_MONTH);
+        if (year < Year.MIN_VALUE || year > Year.MAX_VALUE || month < 1 || month > 12 || day < 1) { return null; }
+        if (day > YearMonth.of((int) year, (int) month).lengthOfMonth()) { return null; }
+        return LocalDate.of((int) year, (int) month, (int) day);
+    }
+}
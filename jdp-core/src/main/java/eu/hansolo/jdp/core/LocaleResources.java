@@ -0,0 +1,135 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp.core;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.DayOfWeek;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.time.temporal.WeekFields;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static eu.hansolo.jdp.core.MonthLayout.DAYS_PER_WEEK;
+
+
+/**
+ * Immutable and thread-safe holder of everything a date picker needs for a specific locale.
+ * The resources of a locale are computed once and shared by all date pickers.
+ */
+public final class LocaleResources {
+    private static final String                       RESOURCE_BUNDLE_NAME = "eu.hansolo.jdp.core.DatePickerBundle";
+    private static final Map<Locale, LocaleResources> CACHE                = new ConcurrentHashMap<>();
+    private        final Locale                       locale;
+    private        final ResourceBundle               resourceBundle;
+    private        final WeekFields                   weekFields;
+    private        final DateTimeFormatter            dateFormatter;
+    private        final DateParser                   dateParser;
+    private        final DateTimeFormatter            timeFormatter;
+    private        final DateTimeFormatter            todaysDateFormatter;
+    private        final String                       dateFormat;
+    private        final String                       timeFormat;
+    private        final String                       todaysDateText;
+    private        final List<String>                 weekDays;
+    private        final List<String>                 weekDaysLong;
+
+
+    // ******************** Constructors **************************************
+    private LocaleResources(final Locale locale) {
+        this.locale              = locale;
+        this.resourceBundle      = ResourceBundle.getBundle(RESOURCE_BUNDLE_NAME, locale);
+        this.weekFields          = WeekFields.of(locale);
+        this.dateFormatter       = DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT).withLocale(locale);
+        this.dateParser          = new DateParser(dateFormatter);
+        this.timeFormatter       = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT).withLocale(locale);
+        this.todaysDateFormatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.FULL).withLocale(locale);
+        this.dateFormat          = ((SimpleDateFormat) DateFormat.getDateInstance(DateFormat.DEFAULT, locale)).toLocalizedPattern();
+        this.timeFormat          = ((SimpleDateFormat) DateFormat.getTimeInstance(DateFormat.DEFAULT, locale)).toLocalizedPattern();
+        this.todaysDateText      = resourceBundle.getString("todays_date");
+
+        String[] weekDays     = new String[DAYS_PER_WEEK];
+        String[] weekDaysLong = new String[DAYS_PER_WEEK];
+        for (int i = 0; i < DAYS_PER_WEEK; i++) {
+            String key = getResourceKey(weekFields.getFirstDayOfWeek().plus(i));
+            weekDays[i]     = resourceBundle.getString(key);
+            weekDaysLong[i] = resourceBundle.getString(key + "_long");
+        }
+        this.weekDays     = List.of(weekDays);
+        this.weekDaysLong = List.of(weekDaysLong);
+    }
+
+
+    // ******************** Methods *******************************************
+    public static LocaleResources of(final Locale locale) {
+        return CACHE.computeIfAbsent(locale, LocaleResources::new);
+    }
+
+    private static String getResourceKey(final DayOfWeek dayOfWeek) {
+        return dayOfWeek.name().substring(0, 3).toLowerCase(Locale.ROOT);
+    }
+
+    public Locale getLocale() { return locale; }
+
+    public ResourceBundle getResourceBundle() { return resourceBundle; }
+
+    public WeekFields getWeekFields() { return weekFields; }
+
+    public DayOfWeek getFirstDayOfWeek() { return weekFields.getFirstDayOfWeek(); }
+
+    public DateTimeFormatter getDateFormatter() { return dateFormatter; }
+
+    /**
+     * Returns the shared parser for dates in the format of getDateFormatter()
+     * @return the shared parser for dates in the format of getDateFormatter()
+     */
+    public DateParser getDateParser() { return dateParser; }
+
+    public DateTimeFormatter getTimeFormatter() { return timeFormatter; }
+
+    public DateTimeFormatter getTodaysDateFormatter() { return todaysDateFormatter; }
+
+    /**
+     * Returns the localized pattern of the default date format of this locale
+     * @return the localized pattern of the default date format of this locale
+     */
+    public String getDateFormat() { return dateFormat; }
+
+    /**
+     * Returns the localized pattern of the default time format of this locale
+     * @return the localized pattern of the default time format of this locale
+     */
+    public String getTimeFormat() { return timeFormat; }
+
+    public String getTodaysDateText() { return todaysDateText; }
+
+    /**
+     * Returns the short names of the days of the week starting with the first day of the week of this locale
+     * @return the unmodifiable list of the short names of the days of the week
+     */
+    public List<String> getWeekDays() { return weekDays; }
+
+    /**
+     * Returns the long names of the days of the week starting with the first day of the week of this locale
+     * @return the unmodifiable list of the long names of the days of the week
+     */
+    public List<String> getWeekDaysLong() { return weekDaysLong; }
+}
@@ -0,0 +1,162 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp.core;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.WeekFields;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+
+/**
+ * Immutable layout of one month in a grid of 6 weeks with 7 days each.
+ * Instances are shared via a small LRU cache, so use MonthLayout.of() to get them.
+ */
+public final class MonthLayout {
+    public  static final int                    DAYS_PER_WEEK = 7;
+    public  static final int                    NO_OF_WEEKS   = 6;
+    public  static final int                    NO_OF_CELLS   = DAYS_PER_WEEK * NO_OF_WEEKS;
+    private static final int                    CACHE_SIZE    = 64;
+    private static final Map<Key, MonthLayout>  CACHE         = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(final Map.Entry<Key, MonthLayout> eldest) { return size() > CACHE_SIZE; }
+    };
+    private        final YearMonth              yearMonth;
+    private        final DayOfWeek              firstDayOfWeek;
+    private        final int                    firstDayOffset;
+    private        final int                    lengthOfMonth;
+    private        final int                    noOfWeeks;
+    private        final int[]                  days;
+    private        final int[]                  weekNumbers;
+    private        final boolean[]              weekends;
+
+
+    // ******************** Constructors **************************************
+    private MonthLayout(final YearMonth yearMonth, final WeekFields weekFields) {
+        LocalDate firstOfMonth = yearMonth.atDay(1);
+
+        this.yearMonth      = yearMonth;
+        this.firstDayOfWeek = weekFields.getFirstDayOfWeek();
+        this.firstDayOffset = (firstOfMonth.getDayOfWeek().getValue() - firstDayOfWeek.getValue() + DAYS_PER_WEEK) % DAYS_PER_WEEK;
+        this.lengthOfMonth  = yearMonth.lengthOfMonth();
+        this.noOfWeeks      = (firstDayOffset + lengthOfMonth + DAYS_PER_WEEK - 1) / DAYS_PER_WEEK;
+        this.days           = new int[NO_OF_CELLS];
+        this.weekNumbers    = new int[NO_OF_WEEKS];
+        this.weekends       = new boolean[DAYS_PER_WEEK];
+
+        for (int cell = 0; cell < NO_OF_CELLS; cell++) {
+            int day = cell - firstDayOffset + 1;
+            days[cell] = day < 1 || day > lengthOfMonth ? 0 : day;
+        }
+        for (int row = 0; row < noOfWeeks; row++) {
+            int firstDayInRow = Math.max(1, row * DAYS_PER_WEEK - firstDayOffset + 1);
+            weekNumbers[row] = firstOfMonth.withDayOfMonth(firstDayInRow).get(weekFields.weekOfWeekBasedYear());
+        }
+        for (int column = 0; column < DAYS_PER_WEEK; column++) {
+            DayOfWeek dayOfWeek = firstDayOfWeek.plus(column);
+            weekends[column] = DayOfWeek.SATURDAY == dayOfWeek || DayOfWeek.SUNDAY == dayOfWeek;
+        }
+    }
+
+
+    // ******************** Methods *******************************************
+    public static MonthLayout of(final YearMonth yearMonth, final WeekFields weekFields) {
+        final Key key = new Key(yearMonth, weekFields.getFirstDayOfWeek(), weekFields.getMinimalDaysInFirstWeek());
+        synchronized (CACHE) {
+            MonthLayout monthLayout = CACHE.get(key);
+            if (null != monthLayout) { return monthLayout; }
+        }
+        final MonthLayout monthLayout = new MonthLayout(yearMonth, weekFields);
+        synchronized (CACHE) {
+            CACHE.put(key, monthLayout);
+        }
+        return monthLayout;
+    }
+
+    public YearMonth getYearMonth() { return yearMonth; }
+
+    public DayOfWeek getFirstDayOfWeek() { return firstDayOfWeek; }
+
+    /**
+     * Returns the number of empty cells in front of the first day of the month
+     * @return the number of empty cells in front of the first day of the month
+     */
+    public int getFirstDayOffset() { return firstDayOffset; }
+
+    public int getLengthOfMonth() { return lengthOfMonth; }
+
+    /**
+     * Returns the number of rows that contain at least one day of the month
+     * @return the number of rows that contain at least one day of the month
+     */
+    public int getNoOfWeeks() { return noOfWeeks; }
+
+    /**
+     * Returns the day of month in the given cell or 0 if the cell is empty
+     * @param cell index of the cell in the range of 0 - 41
+     * @return the day of month in the given cell or 0 if the cell is empty
+     */
+    public int getDay(final int cell) { return days[cell]; }
+
+    /**
+     * Returns the index of the cell that contains the given day of month
+     * @param day day of month
+     * @return the index of the cell that contains the given day of month
+     */
+    public int getCell(final int day) { return day + firstDayOffset - 1; }
+
+    /**
+     * Returns the week of the week based year of the given row or 0 if the row is empty
+     * @param row index of the row in the range of 0 - 5
+     * @return the week of the week based year of the given row or 0 if the row is empty
+     */
+    public int getWeekNumber(final int row) { return weekNumbers[row]; }
+
+    public DayOfWeek getDayOfWeek(final int column) { return firstDayOfWeek.plus(column); }
+
+    public boolean isWeekend(final int column) { return weekends[column]; }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Key {
+        private final YearMonth yearMonth;
+        private final DayOfWeek firstDayOfWeek;
+        private final int       minimalDays;
+
+
+        Key(final YearMonth yearMonth, final DayOfWeek firstDayOfWeek, final int minimalDays) {
+            this.yearMonth      = yearMonth;
+            this.firstDayOfWeek = firstDayOfWeek;
+            this.minimalDays    = minimalDays;
+        }
+
+
+        @Override public boolean equals(final Object o) {
+            if (this == o) { return true; }
+            if (!(o instanceof Key)) { return false; }
+            Key key = (Key) o;
+            return minimalDays == key.minimalDays && yearMonth.equals(key.yearMonth) && firstDayOfWeek == key.firstDayOfWeek;
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(yearMonth, firstDayOfWeek, minimalDays);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp.core;
+
+import java.lang.ref.WeakReference;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+
+/**
+ * Process wide service that keeps track of todays date in every time zone in use.
+ * One daemon thread wakes up once at the next local midnight of each zone and
+ * notifies the owners that are registered for that zone. Owners are only weakly
+ * referenced, so a registration never keeps a view alive and there is no timer
+ * per instance. The clock can be replaced to test date changes deterministically.
+ */
+public final class TodayService {
+    private static final TodayService                INSTANCE     = new TodayService();
+    private static final long                        MIN_DELAY_MS = 1_000;
+    private        final Map<ZoneId, Zone>           zones;
+    private        final ScheduledThreadPoolExecutor scheduler;
+    private volatile     Clock                       clock;
+
+
+    // ******************** Constructors **************************************
+    private TodayService() {
+        this.zones     = new HashMap<>();
+        this.clock     = Clock.systemDefaultZone();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "jdp-today");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+
+    // ******************** Methods *******************************************
+    public static TodayService getInstance() { return INSTANCE; }
+
+    public Clock getClock() { return clock; }
+    /**
+     * Replaces the clock that is used to determine todays date. All zones in use
+     * are checked immediately and owners of zones where the date changed are notified.
+     * @param clock the clock to use, e.g. Clock.fixed(...) in tests
+     */
+    public void setClock(final Clock clock) {
+        this.clock = Objects.requireNonNull(clock);
+        refresh();
+    }
+
+    /**
+     * Returns todays date in the given zone according to the clock of this service
+     * @param zoneId the time zone
+     * @return todays date in the given zone
+     */
+    public LocalDate getToday(final ZoneId zoneId) { return LocalDate.now(clock.withZone(zoneId)); }
+
+    /**
+     * Registers the given owner to be notified when the date changes in the given zone.
+     * A previous registration of the owner is replaced. The owner is only weakly
+     * referenced and the action must not capture it, e.g. use an unbound method
+     * reference like MyView::onTodayChanged. The action is called on the thread
+     * of the service.
+     * @param owner          the object to notify
+     * @param zoneId         the time zone the owner shows todays date for
+     * @param onTodayChanged called with the owner and the new date after midnight
+     * @param <T>            type of the owner
+     */
+    public <T> void register(final T owner, final ZoneId zoneId, final BiConsumer<? super T, LocalDate> onTodayChanged) {
+        Objects.requireNonNull(owner);
+        Objects.requireNonNull(onTodayChanged);
+        synchronized (zones) {
+            removeOwner(owner);
+            Zone zone = zones.get(zoneId);
+            if (null == zone) {
+                zone = new Zone(getToday(zoneId));
+                zones.put(zoneId, zone);
+                schedule(zoneId, zone);
+            }
+            zone.registrations.add(new Registration<>(owner, onTodayChanged));
+        }
+    }
+
+    public void unregister(final Object owner) {
+        synchronized (zones) { removeOwner(owner); }
+    }
+
+    /**
+     * Returns the number of time zones that currently have a scheduled wake up
+     * @return the number of time zones that currently have a scheduled wake up
+     */
+    public int getNoOfZones() {
+        synchronized (zones) { return zones.size(); }
+    }
+
+    /**
+     * Checks todays date of all zones in use and notifies the owners of zones
+     * where it changed since the last check
+     */
+    public void refresh() {
+        List<ZoneId> zoneIds;
+        synchronized (zones) { zoneIds = new ArrayList<>(zones.keySet()); }
+        zoneIds.forEach(this::check);
+    }
+
+    private void check(final ZoneId zoneId) {
+        final LocalDate             today;
+        final List<Registration<?>> toNotify;
+        synchronized (zones) {
+            Zone zone = zones.get(zoneId);
+            if (null == zone) { return; }
+            zone.registrations.removeIf(Registration::isCleared);
+            if (zone.registrations.isEmpty()) {
+                zone.cancel();
+                zones.remove(zoneId);
+                return;
+            }
+            today = getToday(zoneId);
+            toNotify = today.equals(zone.today) ? List.of() : new ArrayList<>(zone.registrations);
+            zone.today = today;
+            zone.cancel();
+            schedule(zoneId, zone);
+        }
+        // Notify outside of the lock so owners can (un)register from the callback
+        toNotify.forEach(registration -> registration.todayChanged(today));
+    }
+
+    private void schedule(final ZoneId zoneId, final Zone zone) {
+        long delay = Duration.between(clock.instant(), zone.today.plusDays(1).atStartOfDay(zoneId).toInstant()).toMillis();
+        zone.wakeUp = scheduler.schedule(() -> check(zoneId), Math.max(MIN_DELAY_MS, delay), TimeUnit.MILLISECONDS);
+    }
+
+    private void removeOwner(final Object owner) {
+        Iterator<Map.Entry<ZoneId, Zone>> iterator = zones.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Zone zone = iterator.next().getValue();
+            zone.registrations.removeIf(registration -> registration.isCleared() || registration.isOwnedBy(owner));
+            if (zone.registrations.isEmpty()) {
+                zone.cancel();
+                iterator.remove();
+            }
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Zone {
+        private final List<Registration<?>> registrations = new ArrayList<>();
+        private       LocalDate             today;
+        private       ScheduledFuture<?>    wakeUp;
+
+
+        Zone(final LocalDate today) {
+            this.today = today;
+        }
+
+
+        void cancel() {
+            if (null != wakeUp) { wakeUp.cancel(false); }
+        }
+    }
+
+    private static final class Registration<T> {
+        private final WeakReference<T>                 owner;
+        private final BiConsumer<? super T, LocalDate> action;
+
+
+        Registration(final T owner, final BiConsumer<? super T, LocalDate> action) {
+            this.owner  = new WeakReference<>(owner);
+            this.action = action;
+        }
+
+
+        boolean isCleared() { return null == owner.get(); }
+
+        boolean isOwnedBy(final Object object) { return owner.get() == object; }
+
+        void todayChanged(final LocalDate today) {
+            T o = owner.get();
+            if (null != o) { action.accept(o, today); }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.awt.*;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static eu.hansolo.jdp.DatePickerPopupBenchmark.onEdt;
+
+
+/**
+ * Benchmarks the construction of a DatePicker.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DatePickerBenchmark {
+    @Param({ "en-US", "de-DE", "fr-FR" })
+    public  String        languageTag;
+    @Param({ "DATE_ONLY", "TIME_ONLY", "DATE_AND_TIME" })
+    public  DisplayMode   displayMode;
+    @Param({ "BUTTONS", "PAINTED", "SCROLLING" })
+    public  GridStyle     gridStyle;
+    private Locale        locale;
+    private ZonedDateTime selectedDate;
+    private DatePicker    datePicker;
+
+
+    @Setup(Level.Trial) public void setup() {
+        locale       = Locale.forLanguageTag(languageTag);
+        selectedDate = ZonedDateTime.of(2020, 6, 15, 12, 0, 0, 0, ZoneId.of("UTC"));
+    }
+
+
+    @Benchmark public DatePicker construct() throws Exception {
+        onEdt(() -> datePicker = new DatePicker(locale, true, true, selectedDate, ZoneId.of("UTC"), displayMode, Color.black, Color.red, true, gridStyle));
+        return datePicker;
+    }
+
+    @Benchmark public DatePicker constructAndSwitchLocale() throws Exception {
+        onEdt(() -> {
+            datePicker = new DatePicker(locale, true, true, selectedDate, ZoneId.of("UTC"), displayMode, Color.black, Color.red, true, gridStyle);
+            datePicker.setLocale(Locale.ROOT);
+        });
+        return datePicker;
+    }
+}
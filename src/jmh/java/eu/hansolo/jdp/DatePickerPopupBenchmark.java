@@ -0,0 +1,159 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks the hot paths of the DatePickerPopup.
+ * All operations are executed on the event dispatch thread, the constant cost of the
+ * hand over to the EDT is part of every measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DatePickerPopupBenchmark {
+    private static final int             WIDTH  = 330;
+    private static final int             HEIGHT = 260;
+    @Param({ "en-US", "de-DE", "fr-FR" })
+    public               String          languageTag;
+    @Param({ "DATE_ONLY", "TIME_ONLY", "DATE_AND_TIME" })
+    public               DisplayMode     displayMode;
+    @Param({ "BUTTONS", "PAINTED", "SCROLLING" })
+    public               GridStyle       gridStyle;
+    private              Locale          locale;
+    private              DatePickerPopup popup;
+    private              BufferedImage   image;
+    private              Graphics2D      graphics;
+    private              boolean         toggle;
+
+
+    @Setup(Level.Trial) public void setup() throws Exception {
+        locale = Locale.forLanguageTag(languageTag);
+        image  = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        onEdt(() -> {
+            popup = new DatePickerPopup(locale, true, true, ZonedDateTime.of(2020, 6, 15, 12, 0, 0, 0, ZoneId.of("UTC")), ZoneId.of("UTC"), displayMode, Color.black, Color.red, gridStyle);
+            popup.setSize(WIDTH, HEIGHT);
+            popup.doLayout();
+        });
+        graphics = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial) public void tearDown() {
+        graphics.dispose();
+    }
+
+
+    @Benchmark public DatePickerPopup nextMonth() throws Exception {
+        onEdt(() -> {
+            popup.setCurrentDate(popup.getCurrentDate().plusMonths(1));
+            popup.validateNow();
+        });
+        return popup;
+    }
+
+    @Benchmark public DatePickerPopup nextYear() throws Exception {
+        onEdt(() -> {
+            popup.setCurrentDate(popup.getCurrentDate().plusYears(1));
+            popup.validateNow();
+        });
+        return popup;
+    }
+
+    @Benchmark public DatePickerPopup selectDay() throws Exception {
+        toggle = !toggle;
+        onEdt(() -> {
+            popup.setSelectedDate(popup.getSelectedDate().withDayOfMonth(toggle ? 14 : 15));
+            popup.validateNow();
+        });
+        return popup;
+    }
+
+    @Benchmark public DatePickerPopup switchLocale() throws Exception {
+        toggle = !toggle;
+        onEdt(() -> {
+            popup.setLocale(toggle ? Locale.ROOT : locale);
+            popup.validateNow();
+        });
+        return popup;
+    }
+
+    @Benchmark public DatePickerPopup reInit() throws Exception {
+        toggle = !toggle;
+        onEdt(() -> {
+            popup.setCalendarWeekVisible(toggle);
+            popup.validateNow();
+        });
+        return popup;
+    }
+
+    @Benchmark public DatePickerPopup burst() throws Exception {
+        toggle = !toggle;
+        onEdt(() -> {
+            popup.setLocale(toggle ? Locale.ROOT : locale);
+            popup.setCalendarWeekVisible(toggle);
+            popup.setCurrentDate(popup.getCurrentDate().plusMonths(1));
+            popup.setSelectedDate(popup.getSelectedDate().withDayOfMonth(toggle ? 14 : 15));
+            popup.validateNow();
+        });
+        return popup;
+    }
+
+    @Benchmark public BufferedImage paint() throws Exception {
+        onEdt(() -> popup.paint(graphics));
+        return image;
+    }
+
+    @Benchmark public BufferedImage navigateAndPaint() throws Exception {
+        onEdt(() -> {
+            popup.setCurrentDate(popup.getCurrentDate().plusMonths(1));
+            popup.validateNow();
+            popup.doLayout();
+            popup.paint(graphics);
+        });
+        return image;
+    }
+
+
+    static void onEdt(final Runnable runnable) throws InterruptedException, InvocationTargetException {
+        if (SwingUtilities.isEventDispatchThread()) {
+            runnable.run();
+        } else {
+            SwingUtilities.invokeAndWait(runnable);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static eu.hansolo.jdp.DatePickerPopupBenchmark.onEdt;
+
+
+/**
+ * Benchmarks opening and painting a MultiMonthPopup, a year planner should
+ * not be much slower than a single month.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultiMonthPopupBenchmark {
+    @Param({ "en-US", "de-DE" })
+    public               String          languageTag;
+    @Param({ "1", "3", "12" })
+    public               int             noOfMonths;
+    private              Locale          locale;
+    private              MultiMonthPopup popup;
+    private              BufferedImage   image;
+    private              Graphics2D      graphics;
+
+
+    @Setup(Level.Trial) public void setup() throws Exception {
+        locale = Locale.forLanguageTag(languageTag);
+        onEdt(() -> {
+            popup = new MultiMonthPopup(locale, true, YearMonth.of(2020, 1), noOfMonths, LocalDate.of(2020, 6, 15), ZoneId.of("UTC"), Color.black, Color.red);
+            popup.setSize(popup.getPreferredSize());
+        });
+        image    = new BufferedImage(popup.getWidth(), popup.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial) public void tearDown() {
+        graphics.dispose();
+    }
+
+
+    @Benchmark public BufferedImage open() throws Exception {
+        onEdt(() -> {
+            MultiMonthPopup multiMonthPopup = new MultiMonthPopup(locale, true, YearMonth.of(2020, 1), noOfMonths, LocalDate.of(2020, 6, 15), ZoneId.of("UTC"), Color.black, Color.red);
+            multiMonthPopup.setSize(popup.getSize());
+            multiMonthPopup.paint(graphics);
+        });
+        return image;
+    }
+
+    @Benchmark public BufferedImage nextMonthAndPaint() throws Exception {
+        onEdt(() -> {
+            popup.setFirstMonth(popup.getFirstMonth().plusMonths(1));
+            popup.paint(graphics);
+        });
+        return image;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import eu.hansolo.jdp.core.MonthLayout;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.FocusEvent;
+import java.awt.event.FocusListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.ZonedDateTime;
+
+import static eu.hansolo.jdp.DatePickerPopup.RANGE_END;
+import static eu.hansolo.jdp.DatePickerPopup.RANGE_INSIDE;
+import static eu.hansolo.jdp.MonthPainter.DISABLED;
+import static eu.hansolo.jdp.MonthPainter.FOCUSED;
+import static eu.hansolo.jdp.MonthPainter.IN_RANGE;
+import static eu.hansolo.jdp.MonthPainter.NO_OF_ROWS;
+import static eu.hansolo.jdp.MonthPainter.SELECTED;
+
+
+/**
+ * Lightweight replacement for the grid of day buttons in the DatePickerPopup.
+ * All cells are painted by this single component which also does its own hit testing.
+ */
+class CalendarGrid extends JComponent implements MonthPainter.Days {
+    private static final int             PREFERRED_WIDTH  = 40;
+    private static final int             PREFERRED_HEIGHT = 20;
+    private        final DatePickerPopup popup;
+    private        final MonthPainter    painter;
+    private              int             selectedDay;
+
+
+    // ******************** Constructors **************************************
+    CalendarGrid(final DatePickerPopup popup) {
+        this.popup   = popup;
+        this.painter = new MonthPainter();
+        setFocusable(true);
+        setOpaque(false);
+        ToolTipManager.sharedInstance().registerComponent(this);
+        registerListeners();
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private void registerListeners() {
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override public void mousePressed(final MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) { return; }
+                int day = getDayAt(e.getX(), e.getY());
+                if (day > 0 && popup.isDayEnabled(day)) {
+                    requestFocusInWindow();
+                    popup.selectDay(day);
+                }
+            }
+            @Override public void mouseMoved(final MouseEvent e) { popup.hoverDay(getDayAt(e.getX(), e.getY())); }
+            @Override public void mouseExited(final MouseEvent e) { popup.hoverDay(0); }
+        };
+        addMouseListener(mouseAdapter);
+        addMouseMotionListener(mouseAdapter);
+        addFocusListener(new FocusListener() {
+            @Override public void focusGained(final FocusEvent e) { repaintFocusedCell(); }
+            @Override public void focusLost(final FocusEvent e) { repaintFocusedCell(); }
+        });
+    }
+
+    /**
+     * Repaints only the cell of the day that has the keyboard focus
+     */
+    private void repaintFocusedCell() {
+        MonthLayout monthLayout = popup.getMonthLayout();
+        if (null == monthLayout) { return; }
+        repaintCell(monthLayout.getCell(popup.getFocusedDay()));
+    }
+
+    private void configurePainter() {
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        painter.setFonts(popup.getDaysOfWeekFont(), popup.getCalendarWeekFont(), popup.getDayFont());
+        painter.setColors(popup.getTextColor(), popup.getWeekendColor());
+        painter.setStateColors(MonthPainter.getStateColors());
+        painter.setHeaderNames(popup.getHeaderNames());
+    }
+
+
+    // ******************** Public Methods ************************************
+    @Override public Dimension getMinimumSize() {
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        return new Dimension(painter.getNoOfColumns() * PREFERRED_WIDTH / 2, NO_OF_ROWS * PREFERRED_HEIGHT / 2);
+    }
+    @Override public Dimension getPreferredSize() {
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        return new Dimension(painter.getNoOfColumns() * PREFERRED_WIDTH, NO_OF_ROWS * PREFERRED_HEIGHT);
+    }
+
+    /**
+     * Returns the day of the current month at the given position or 0 if there is no day cell at this position
+     * @param x x coordinate in component space
+     * @param y y coordinate in component space
+     * @return the day of month at the given position or 0
+     */
+    public int getDayAt(final int x, final int y) {
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        return painter.getDayAt(popup.getMonthLayout(), x, y, getWidth(), getHeight());
+    }
+
+    /**
+     * Repaints only the area of the given cell
+     * @param cell index of the cell in the range of 0 - 41
+     */
+    void repaintCell(final int cell) {
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        repaint(painter.getCellBounds(cell, 0, 0, getWidth(), getHeight()));
+    }
+
+    @Override public String getToolTipText(final MouseEvent e) {
+        int day = getDayAt(e.getX(), e.getY());
+        if (0 == day) { return null; }
+        DayDecoration decoration = popup.getDecoration(day);
+        return null == decoration ? null : decoration.getTooltip();
+    }
+
+    @Override public int getState(final MonthLayout monthLayout, final int day) {
+        int state = popup.isDayEnabled(day) ? 0 : DISABLED;
+        if (SelectionMode.RANGE == popup.getSelectionMode()) {
+            int rangeState = popup.getRangeState(day);
+            if (RANGE_INSIDE == rangeState) { state |= IN_RANGE; }
+            if (RANGE_END == rangeState)    { state |= SELECTED; }
+        } else if (day == selectedDay) {
+            state |= SELECTED;
+        }
+        return hasFocus() && day == popup.getFocusedDay() ? state | FOCUSED : state;
+    }
+
+    @Override public DayDecoration getDecoration(final MonthLayout monthLayout, final int day) {
+        return popup.getDecoration(day);
+    }
+
+    @Override protected void paintComponent(final Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        ZonedDateTime currentDate  = popup.getCurrentDate();
+        ZonedDateTime selectedDate = popup.getSelectedDate();
+        selectedDay = selectedDate.getYear() == currentDate.getYear() && selectedDate.getMonthValue() == currentDate.getMonthValue() ? selectedDate.getDayOfMonth() : 0;
+
+        configurePainter();
+        painter.paint(g2, popup.getMonthLayout(), 0, 0, getWidth(), getHeight(), this);
+        g2.dispose();
+    }
+}
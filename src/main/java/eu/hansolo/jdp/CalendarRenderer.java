@@ -0,0 +1,237 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import eu.hansolo.jdp.MonthPainter.StateColors;
+import eu.hansolo.jdp.core.CalendarModel;
+import eu.hansolo.jdp.core.MonthLayout;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static eu.hansolo.jdp.MonthPainter.DISABLED;
+import static eu.hansolo.jdp.MonthPainter.NO_OF_ROWS;
+import static eu.hansolo.jdp.MonthPainter.SELECTED;
+
+
+/**
+ * Renders the month of a CalendarModel with its title, week days, calendar weeks and
+ * selection into a BufferedImage without creating any window, so it also works in
+ * headless mode (-Djava.awt.headless=true). The month grid comes from the MonthLayout
+ * of the model which is the same one the DatePickerPopup uses. A renderer is immutable
+ * and can be used from several threads, renderAll() renders many months in parallel.
+ */
+public final class CalendarRenderer {
+    private static final int     BATCH_SIZE = 4;
+    private        final boolean calendarWeekVisible;
+    private        final Color   textColor;
+    private        final Color   weekendColor;
+    private        final Color   backgroundColor;
+
+
+    // ******************** Constructors **************************************
+    public CalendarRenderer() {
+        this(false, Color.black, Color.red, Color.white);
+    }
+    public CalendarRenderer(final boolean calendarWeekVisible, final Color textColor, final Color weekendColor) {
+        this(calendarWeekVisible, textColor, weekendColor, Color.white);
+    }
+    /**
+     * @param calendarWeekVisible true if the calendar weeks should be rendered
+     * @param textColor           color of the title, week days and days
+     * @param weekendColor        color of the weekend days in the header
+     * @param backgroundColor     color that fills the image or null for a transparent image
+     */
+    public CalendarRenderer(final boolean calendarWeekVisible, final Color textColor, final Color weekendColor, final Color backgroundColor) {
+        this.calendarWeekVisible = calendarWeekVisible;
+        this.textColor           = Objects.requireNonNull(textColor);
+        this.weekendColor        = Objects.requireNonNull(weekendColor);
+        this.backgroundColor     = backgroundColor;
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns a renderer that uses the calendar week visibility and colors of the given popup.
+     * Render popup.getCalendarModel() with it to get an image with the locale, month and selection of the popup.
+     * @param popup the popup to take the settings from
+     * @return a renderer that uses the calendar week visibility and colors of the given popup
+     */
+    public static CalendarRenderer of(final DatePickerPopup popup) {
+        return new CalendarRenderer(popup.isCalendarWeekVisible(), popup.getTextColor(), popup.getWeekendColor(), Color.white);
+    }
+
+    public boolean isCalendarWeekVisible() { return calendarWeekVisible; }
+
+    public Color getTextColor() { return textColor; }
+
+    public Color getWeekendColor() { return weekendColor; }
+
+    public Color getBackgroundColor() { return backgroundColor; }
+
+    /**
+     * Renders the month of the given model into a new image of the given size
+     * @param model  the model that defines the month, locale, selection and disabled days
+     * @param width  width of the image in pixels
+     * @param height height of the image in pixels
+     * @return an image that shows the month of the given model
+     */
+    public BufferedImage render(final CalendarModel model, final int width, final int height) {
+        Objects.requireNonNull(model);
+        if (width <= 0 || height <= 0) { throw new IllegalArgumentException("width and height must be positive"); }
+        return render(model, width, height, UIManager.getLookAndFeel(), MonthPainter.getStateColors());
+    }
+
+    /**
+     * Renders the month of the given model into the given area
+     * @param g2     the graphics to paint on
+     * @param model  the model that defines the month, locale, selection and disabled days
+     * @param x      x coordinate of the area
+     * @param y      y coordinate of the area
+     * @param width  width of the area
+     * @param height height of the area
+     */
+    public void paint(final Graphics2D g2, final CalendarModel model, final int x, final int y, final int width, final int height) {
+        paint(g2, model, x, y, width, height, UIManager.getLookAndFeel(), MonthPainter.getStateColors());
+    }
+
+    /**
+     * Renders the months of the given models in parallel in the common fork join pool
+     * @param models the models to render
+     * @param width  width of each image in pixels
+     * @param height height of each image in pixels
+     * @return the images in the order of the given models
+     */
+    public List<BufferedImage> renderAll(final List<CalendarModel> models, final int width, final int height) {
+        return renderAll(models, width, height, ForkJoinPool.commonPool());
+    }
+    /**
+     * Renders the months of the given models in parallel in the given fork join pool
+     * @param models the models to render
+     * @param width  width of each image in pixels
+     * @param height height of each image in pixels
+     * @param pool   the pool that renders the images
+     * @return the images in the order of the given models
+     */
+    public List<BufferedImage> renderAll(final List<CalendarModel> models, final int width, final int height, final ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        if (width <= 0 || height <= 0) { throw new IllegalArgumentException("width and height must be positive"); }
+        CalendarModel[] input  = models.toArray(new CalendarModel[0]);
+        BufferedImage[] output = new BufferedImage[input.length];
+        pool.invoke(new RenderTask(input, output, 0, input.length, width, height, UIManager.getLookAndFeel(), MonthPainter.getStateColors()));
+        return Arrays.asList(output);
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private BufferedImage render(final CalendarModel model, final int width, final int height, final LookAndFeel laf, final StateColors stateColors) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D    g2    = image.createGraphics();
+        try {
+            paint(g2, model, 0, 0, width, height, laf, stateColors);
+        } finally {
+            g2.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * The LookAndFeel and the state colors are read on the calling thread, so the worker threads of renderAll() never ask the UIManager for them
+     */
+    private void paint(final Graphics2D g2, final CalendarModel model, final int x, final int y, final int width, final int height, final LookAndFeel laf, final StateColors stateColors) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        if (null != backgroundColor) {
+            g2.setColor(backgroundColor);
+            g2.fillRect(x, y, width, height);
+        }
+
+        PopupMetrics metrics     = PopupMetrics.forFullMonth(laf, width, height);
+        MonthPainter painter     = new MonthPainter();
+        double       titleHeight = height / (double) (NO_OF_ROWS + 1);
+        painter.setCalendarWeekVisible(calendarWeekVisible);
+        painter.setFonts(metrics.getDaysOfWeekFont(), metrics.getCalendarWeekFont(), metrics.getDayFont());
+        painter.setColors(textColor, weekendColor);
+        painter.setStateColors(stateColors);
+        painter.setHeaderNames(metrics.isLongWeekDays() ? model.getWeekDaysLong() : model.getWeekDays());
+
+        g2.setFont(metrics.getCurrentMonthFont());
+        g2.setColor(textColor);
+        MonthPainter.drawCentered(g2, model.getMonthText(), x, y, width, titleHeight);
+        painter.paint(g2, model.getMonthLayout(), x, y + titleHeight, width, height - titleHeight, new ModelDays(model));
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class ModelDays implements MonthPainter.Days {
+        private final CalendarModel model;
+
+
+        ModelDays(final CalendarModel model) { this.model = model; }
+
+
+        @Override public int getState(final MonthLayout monthLayout, final int day) {
+            int state = model.isEnabled(day) ? 0 : DISABLED;
+            return model.isSelected(day) ? state | SELECTED : state;
+        }
+
+        @Override public DayDecoration getDecoration(final MonthLayout monthLayout, final int day) { return null; }
+    }
+
+    /**
+     * Splits the models in halves until at most BATCH_SIZE of them are left which are then rendered in one go
+     */
+    private final class RenderTask extends RecursiveAction {
+        private final CalendarModel[] input;
+        private final BufferedImage[] output;
+        private final int             from;
+        private final int             to;
+        private final int             width;
+        private final int             height;
+        private final LookAndFeel     laf;
+        private final StateColors     stateColors;
+
+
+        RenderTask(final CalendarModel[] input, final BufferedImage[] output, final int from, final int to, final int width, final int height, final LookAndFeel laf, final StateColors stateColors) {
+            this.input       = input;
+            this.output      = output;
+            this.from        = from;
+            this.to          = to;
+            this.width       = width;
+            this.height      = height;
+            this.laf         = laf;
+            this.stateColors = stateColors;
+        }
+
+
+        @Override protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) { output[i] = render(input[i], width, height, laf, stateColors); }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RenderTask(input, output, from, middle, width, height, laf, stateColors), new RenderTask(input, output, middle, to, width, height, laf, stateColors));
+            }
+        }
+    }
+}
@@ -17,34 +17,65 @@
  */
 package eu.hansolo.jdp;
 
+import eu.hansolo.jdp.core.DateConstraints;
+import eu.hansolo.jdp.core.DateParser;
+import eu.hansolo.jdp.core.LocaleResources;
+
 import javax.swing.*;
 import javax.swing.plaf.metal.MetalLookAndFeel;
 import javax.swing.plaf.nimbus.NimbusLookAndFeel;
-import javax.swing.text.DateFormatter;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.DefaultFormatterFactory;
 import java.awt.*;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowFocusListener;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.text.ParseException;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static eu.hansolo.jdp.DisplayMode.DATE_AND_TIME;
 
 
 public class DatePicker extends JPanel {
-    public static final  boolean             CALENDAR_WEEK_VISIBLE = true;
-    public static final  boolean             CALENDAR_WEEK_HIDDEN  = false;
-    public static final  boolean             TODAYS_DATE_VISIBLE   = true;
-    public static final  boolean             TODAYS_DATE_HIDDEN    = false;
-    private              JFormattedTextField dateField;
-    private              DatePickerPopup     popup;
-    private              JDialog             dialog;
-    private              boolean             autoClosePopup;
+    public static final  boolean                       CALENDAR_WEEK_VISIBLE = true;
+    public static final  boolean                       CALENDAR_WEEK_HIDDEN  = false;
+    public static final  boolean                       TODAYS_DATE_VISIBLE   = true;
+    public static final  boolean                       TODAYS_DATE_HIDDEN    = false;
+    private static final Dimension                     DATE_AND_TIME_SIZE    = new Dimension(280, 310);
+    private static final Dimension                     DATE_ONLY_SIZE        = new Dimension(280, 220);
+    private static final Dimension                     TIME_ONLY_SIZE        = new Dimension(280, 20);
+    private static final Color                         INVALID_INPUT_COLOR   = new Color(204, 0, 0);
+    private static final String                        SHARED_POPUP_KEY      = "eu.hansolo.jdp.DatePicker.sharedPopup";
+    private              JFormattedTextField           dateField;
+    private              Color                         validInputColor;
+    private              JButton                       popupButton;
+    private              DatePickerPopup               popup;
+    private              JDialog                       dialog;
+    private              WindowFocusListener           dialogFocusListener;
+    private              DatePickerEventObserver       popupObserver;
+    private              List<DatePickerEventObserver> observers;
+    private              boolean                       autoClosePopup;
+    private              boolean                       sharedPopup;
+    private              Locale                        locale;
+    private              DateParser                    dateParser;
+    private              boolean                       calendarWeekVisible;
+    private              boolean                       todaysDateVisible;
+    private              ZonedDateTime                 selectedDate;
+    private              ZonedDateTime                 currentDate;
+    private              ZoneId                        zoneId;
+    private              DisplayMode                   displayMode;
+    private              GridStyle                     gridStyle;
+    private              Color                         textColor;
+    private              Color                         weekendColor;
+    private              DateConstraints               dateConstraints;
+
 
     // ******************** Constructors **************************************
     public DatePicker() {
@@ -70,18 +101,48 @@ public class DatePicker extends JPanel {
         this(locale, calendarWeekVisible, todaysDateVisible, selectedDate, zoneId, displayMode, textColor, weekendColor, true);
     }
     public DatePicker(final Locale locale, final boolean calendarWeekVisible, final boolean todaysDateVisible, final ZonedDateTime selectedDate, final ZoneId zoneId, final DisplayMode displayMode, final Color textColor, final Color weekendColor, final boolean autoClosePopup) {
+        this(locale, calendarWeekVisible, todaysDateVisible, selectedDate, zoneId, displayMode, textColor, weekendColor, autoClosePopup, GridStyle.BUTTONS);
+    }
+    public DatePicker(final Locale locale, final boolean calendarWeekVisible, final boolean todaysDateVisible, final ZonedDateTime selectedDate, final ZoneId zoneId, final DisplayMode displayMode, final Color textColor, final Color weekendColor, final boolean autoClosePopup, final GridStyle gridStyle) {
         setLayout(new GridBagLayout());
         setPreferredSize(new Dimension(200, 20));
         setMaximumSize(new Dimension(200, 20));
 
-        this.autoClosePopup = autoClosePopup;
+        this.autoClosePopup      = autoClosePopup;
+        this.locale              = locale;
+        this.dateParser          = LocaleResources.of(locale).getDateParser();
+        this.calendarWeekVisible = calendarWeekVisible;
+        this.todaysDateVisible   = todaysDateVisible;
+        this.selectedDate        = selectedDate;
+        this.currentDate         = selectedDate;
+        this.zoneId              = zoneId;
+        this.displayMode         = displayMode;
+        this.gridStyle           = gridStyle;
+        this.textColor           = textColor;
+        this.weekendColor        = weekendColor;
+        this.dateConstraints     = DateConstraints.NONE;
+        this.observers           = new CopyOnWriteArrayList<>();
 
-        popup = new DatePickerPopup(locale, calendarWeekVisible, todaysDateVisible, selectedDate, zoneId, displayMode, textColor, weekendColor);
-
-        SimpleDateFormat datePattern = (SimpleDateFormat) DateFormat.getDateInstance(DateFormat.DEFAULT, locale);
-
-        dateField = new JFormattedTextField(new SimpleDateFormat(datePattern.toLocalizedPattern()));
+        dateField = new JFormattedTextField(new DefaultFormatterFactory(new LocalDateFormatter()));
         dateField.setHorizontalAlignment(SwingConstants.RIGHT);
+        validInputColor = dateField.getForeground();
+        dateField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(final DocumentEvent e)  { validateInput(); }
+            @Override public void removeUpdate(final DocumentEvent e)  { validateInput(); }
+            @Override public void changedUpdate(final DocumentEvent e) { }
+        });
+        dateField.addPropertyChangeListener("value", e -> {
+            if (!(e.getNewValue() instanceof LocalDate)) { return; }
+            LocalDate date = (LocalDate) e.getNewValue();
+            if (date.equals(getSelectedDate().toLocalDate())) { return; }
+            ZonedDateTime selected = ZonedDateTime.of(date, getSelectedDate().toLocalTime(), zoneId);
+            this.selectedDate = selected;
+            this.currentDate  = selected;
+            if (isPopupBound()) {
+                popup.setSelectedDate(selected);
+                popup.setCurrentDate(selected);
+            }
+        });
 
         final int fontSize;
         final int buttonWidth;
@@ -104,127 +165,369 @@ public class DatePicker extends JPanel {
             dateField.setPreferredSize(new Dimension(120, 24));
         }
 
-        JButton popupButton = new JButton("\u25c2");
+        popupButton = new JButton("\u25c2");
         popupButton.setFont(new Font("SansSerif", Font.PLAIN, fontSize));
         popupButton.setVerticalTextPosition(SwingConstants.CENTER);
         popupButton.setPreferredSize(new Dimension(buttonWidth, buttonHeight));
         popupButton.setMargin(new Insets(0, 0, 0, 0));
         popupButton.addActionListener(e -> {
-            Point p = dateField.getLocationOnScreen();
-
-            dialog = new JDialog();
-            dialog.addWindowFocusListener(new WindowFocusListener() {
-                @Override public void windowGainedFocus(final WindowEvent e) {
-                    popupButton.setText("\u25be");
-                    try {
-                        popup.setSelectedDate(ZonedDateTime.parse(dateField.getText()));
-                    } catch (DateTimeParseException ex) {
+            Point   p      = dateField.getLocationOnScreen();
+            JDialog dialog = acquirePopup();
+            dialog.setSize(getPopupSize());
+            dialog.setLocation(p.x, p.y + dateField.getHeight());
+            dialog.setVisible(true);
+        });
 
-                    }
+        dialogFocusListener = new WindowFocusListener() {
+            @Override public void windowGainedFocus(final WindowEvent e) {
+                popupButton.setText("\u25be");
+                LocalDate date = dateParser.parse(dateField.getText());
+                if (null != date && dateConstraints.isAllowed(date)) {
+                    setSelectedDate(ZonedDateTime.of(date, getSelectedDate().toLocalTime(), zoneId));
                 }
-                @Override public void windowLostFocus(final WindowEvent e) {
-                    try {
-                        if (SwingUtilities.isDescendingFrom(e.getOppositeWindow(), dialog)) {
-                            return;
-                        }
-                    } catch (NullPointerException ex) {
+            }
+            @Override public void windowLostFocus(final WindowEvent e) {
+                try {
+                    if (SwingUtilities.isDescendingFrom(e.getOppositeWindow(), dialog)) {
                         return;
                     }
-                    popupButton.setText("\u25c2");
-                    dialog.setVisible(false);
+                } catch (NullPointerException ex) {
+                    return;
                 }
-            });
-            dialog.setUndecorated(true);
-            switch (popup.getDisplayMode()) {
-                case DATE_AND_TIME:
-                    dialog.setPreferredSize(new Dimension(280, 310));
-                    break;
-                case DATE_ONLY:
-                    dialog.setPreferredSize(new Dimension(280, 220));
-                    break;
-                case TIME_ONLY:
-                    dialog.setPreferredSize(new Dimension(280, 20));
-                    break;
+                popupButton.setText("\u25c2");
+                dialog.setVisible(false);
             }
-            //dialog.setModal(true);
-            dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
-            dialog.setLayout(new BorderLayout());
-            dialog.getContentPane().add(popup);
-            dialog.pack();
-            dialog.setLocation(p.x, p.y + dateField.getHeight());
-            dialog.setVisible(true);
-        });
+        };
 
-        popup.setOnDatePickerEvent(e -> {
-            dateField.setText(popup.dateFormatter.format(popup.getSelectedDate()));
-            if (autoClosePopup) {
-                dialog.setVisible(false);
-                popupButton.setText("\u25c2");
+        popupObserver = e -> {
+            this.selectedDate = popup.getSelectedDate();
+            this.currentDate  = popup.getCurrentDate();
+            if (DatePickerEventType.DATE_SELECTED == e.getType()) {
+                dateField.setValue(selectedDate.toLocalDate());
+                if (autoClosePopup && null != dialog) {
+                    dialog.setVisible(false);
+                    popupButton.setText("\u25c2");
+                }
             }
-        });
+            observers.forEach(observer -> observer.onDatePickerEvent(e));
+        };
 
         add(dateField);
         add(popupButton);
     }
 
 
+    // ******************** Private methods ***********************************
+    /**
+     * Returns the dialog that hosts the popup and binds the popup to this DatePicker.
+     * The popup is created on first use. If the popup is shared, one popup and dialog
+     * per window is stored in the root pane and rebound to whichever DatePicker
+     * opened it, otherwise the dialog is reused as long as the DatePicker stays in
+     * the same window.
+     * @return the dialog that hosts the popup
+     */
+    private JDialog acquirePopup() {
+        Window    owner    = SwingUtilities.getWindowAncestor(this);
+        JRootPane rootPane = SwingUtilities.getRootPane(this);
+        if (sharedPopup && null != rootPane) {
+            SharedPopup shared = (SharedPopup) rootPane.getClientProperty(SHARED_POPUP_KEY);
+            if (null == shared) {
+                shared = new SharedPopup(createPopup(), owner);
+                rootPane.putClientProperty(SHARED_POPUP_KEY, shared);
+            }
+            if (shared.datePicker != this) {
+                if (null != shared.datePicker) { shared.datePicker.releasePopup(); }
+                shared.datePicker = this;
+                bindPopup(shared.popup, shared.dialog);
+            }
+            return dialog;
+        }
+        if (null != dialog && dialog.getOwner() != owner) {
+            disposeDialog();
+        }
+        if (null == popup) {
+            bindPopup(createPopup(), null);
+        }
+        if (null == dialog) {
+            dialog = createDialog(owner, popup);
+            dialog.addWindowFocusListener(dialogFocusListener);
+        }
+        return dialog;
+    }
+
+    private DatePickerPopup createPopup() {
+        return new DatePickerPopup(locale, calendarWeekVisible, todaysDateVisible, selectedDate, zoneId, displayMode, textColor, weekendColor, gridStyle);
+    }
+
+    private static JDialog createDialog(final Window owner, final DatePickerPopup popup) {
+        JDialog dialog = new JDialog(owner);
+        dialog.setUndecorated(true);
+        dialog.setDefaultCloseOperation(WindowConstants.HIDE_ON_CLOSE);
+        dialog.setLayout(new BorderLayout());
+        dialog.getContentPane().add(popup);
+        return dialog;
+    }
+
+    /**
+     * Applies the state of this DatePicker to the given popup and forwards its events
+     * to the observers of this DatePicker. Unchanged properties are not set again
+     * so rebinding a shared popup to a similar DatePicker does not rebuild its layout.
+     * @param popup  the popup to bind
+     * @param dialog the dialog of a shared popup or null
+     */
+    private void bindPopup(final DatePickerPopup popup, final JDialog dialog) {
+        this.popup = popup;
+        if (!locale.equals(popup.getLocale()))                    { popup.setLocale(locale); }
+        if (calendarWeekVisible != popup.isCalendarWeekVisible()) { popup.setCalendarWeekVisible(calendarWeekVisible); }
+        if (todaysDateVisible != popup.isTodaysDateVisible())     { popup.setTodaysDateVisible(todaysDateVisible); }
+        if (displayMode != popup.getDisplayMode())                { popup.setDisplayMode(displayMode); }
+        if (gridStyle != popup.getGridStyle())                    { popup.setGridStyle(gridStyle); }
+        if (!textColor.equals(popup.getTextColor()))              { popup.setTextColor(textColor); }
+        if (!weekendColor.equals(popup.getWeekendColor()))        { popup.setWeekendColor(weekendColor); }
+        popup.setZoneId(zoneId);
+        popup.setDateConstraints(dateConstraints);
+        popup.setSelectedDate(selectedDate);
+        popup.setCurrentDate(currentDate);
+        popup.addDatePickerEventObserver(popupObserver);
+        if (null != dialog) {
+            this.dialog = dialog;
+            dialog.addWindowFocusListener(dialogFocusListener);
+        }
+    }
+
+    /**
+     * Unbinds a shared popup from this DatePicker, called when another DatePicker
+     * of the same window opens the shared popup.
+     */
+    private void releasePopup() {
+        if (null == popup) { return; }
+        popup.removeDatePickerEventObserver(popupObserver);
+        dialog.removeWindowFocusListener(dialogFocusListener);
+        dialog.setVisible(false);
+        popupButton.setText("\u25c2");
+        popup  = null;
+        dialog = null;
+    }
+
+    private void disposeDialog() {
+        if (null == dialog) { return; }
+        if (sharedPopup) {
+            JRootPane rootPane = SwingUtilities.getRootPane(this);
+            SharedPopup shared = null == rootPane ? null : (SharedPopup) rootPane.getClientProperty(SHARED_POPUP_KEY);
+            if (null != shared && shared.datePicker == this) { shared.datePicker = null; }
+            releasePopup();
+            return;
+        }
+        dialog.removeWindowFocusListener(dialogFocusListener);
+        dialog.getContentPane().remove(popup);
+        dialog.dispose();
+        dialog = null;
+        popupButton.setText("\u25c2");
+    }
+
+    private boolean isPopupBound() { return null != popup; }
+
+    private Dimension getPopupSize() {
+        switch (displayMode) {
+            case DATE_ONLY: return DATE_ONLY_SIZE;
+            case TIME_ONLY: return TIME_ONLY_SIZE;
+            default       : return DATE_AND_TIME_SIZE;
+        }
+    }
+
+
     // ******************** Public methods ************************************
+    @Override public void removeNotify() {
+        disposeDialog();
+        super.removeNotify();
+    }
+
     public ZonedDateTime getSelectedDate() {
-        return popup.getSelectedDate();
+        return selectedDate;
     }
     public void setSelectedDate(final ZonedDateTime selectedDate) {
-        popup.setSelectedDate(selectedDate);
+        this.selectedDate = selectedDate;
+        if (isPopupBound()) { popup.setSelectedDate(selectedDate); }
+        dateField.setValue(selectedDate.toLocalDate());
     }
 
     public ZonedDateTime getCurrentDate() {
-        return popup.getCurrentDate();
+        return currentDate;
     }
     public void setCurrentDate(final ZonedDateTime currentDate) {
-        popup.setCurrentDate(currentDate);
+        this.currentDate = currentDate;
+        if (isPopupBound()) { popup.setCurrentDate(currentDate); }
+    }
+
+    public DateConstraints getDateConstraints() {
+        return dateConstraints;
+    }
+    /**
+     * Defines which dates can be selected in the popup or typed into the text field
+     * @param dateConstraints the rules that decide which dates can be selected
+     */
+    public void setDateConstraints(final DateConstraints dateConstraints) {
+        this.dateConstraints = null == dateConstraints ? DateConstraints.NONE : dateConstraints;
+        if (isPopupBound()) { popup.setDateConstraints(this.dateConstraints); }
+    }
+
+    public boolean isCalendarWeekVisible() {
+        return calendarWeekVisible;
+    }
+    public void setCalendarWeekVisible(final boolean visible) {
+        this.calendarWeekVisible = visible;
+        if (isPopupBound()) { popup.setCalendarWeekVisible(visible); }
     }
 
     public boolean isTodaysDateVisible() {
-        return popup.isTodaysDateVisible();
+        return todaysDateVisible;
     }
     public void setTodaysDateVisible(final boolean visible) {
-        popup.setTodaysDateVisible(visible);
+        this.todaysDateVisible = visible;
+        if (isPopupBound()) { popup.setTodaysDateVisible(visible); }
     }
 
     public DisplayMode getDisplayMode() {
-        return popup.getDisplayMode();
+        return displayMode;
     }
     public void setDisplayMode(final DisplayMode displayMode) {
-        popup.setDisplayMode(displayMode);
+        this.displayMode = displayMode;
+        if (isPopupBound()) { popup.setDisplayMode(displayMode); }
+    }
+
+    public GridStyle getGridStyle() {
+        return gridStyle;
+    }
+    public void setGridStyle(final GridStyle gridStyle) {
+        this.gridStyle = gridStyle;
+        if (isPopupBound()) { popup.setGridStyle(gridStyle); }
     }
 
     public Color getTextColor() {
-        return popup.getTextColor();
+        return textColor;
     }
     public void setTextColor(final Color textColor) {
-        popup.setTextColor(textColor);
+        this.textColor = textColor;
+        if (isPopupBound()) { popup.setTextColor(textColor); }
     }
 
     public Color getWeekendColor() {
-        return popup.getWeekendColor();
+        return weekendColor;
     }
     public void setWeekendColor(final Color weekendColor) {
-        popup.setWeekendColor(weekendColor);
+        this.weekendColor = weekendColor;
+        if (isPopupBound()) { popup.setWeekendColor(weekendColor); }
     }
 
-    public void setLocale(final Locale locale) {
-        popup.setLocale(locale);
+    @Override public Locale getLocale() {
+        return null == locale ? super.getLocale() : locale;
+    }
+    @Override public void setLocale(final Locale locale) {
+        this.locale     = locale;
+        this.dateParser = LocaleResources.of(locale).getDateParser();
+        if (isPopupBound()) { popup.setLocale(locale); }
         dateField.setLocale(locale);
-        DateFormatter dateFormatter = (DateFormatter) dateField.getFormatter();
-        dateFormatter.setFormat(DateFormat.getDateInstance(DateFormat.DEFAULT, locale));
+        // Setting the value re-installs the formatter which reformats the text with the new locale
+        dateField.setValue(dateField.getValue());
+    }
+
+    public boolean isSharedPopup() {
+        return sharedPopup;
+    }
+    /**
+     * If true all DatePickers of a window that have this flag set share one popup,
+     * which is rebound to the DatePicker that opened it. Otherwise each DatePicker
+     * creates its own popup when it is opened for the first time.
+     * @param sharedPopup true to share one popup with the other DatePickers of the window
+     */
+    public void setSharedPopup(final boolean sharedPopup) {
+        if (sharedPopup == this.sharedPopup) { return; }
+        disposeDialog();
+        if (null != popup) {
+            popup.removeDatePickerEventObserver(popupObserver);
+            popup = null;
+        }
+        this.sharedPopup = sharedPopup;
     }
 
     public void setOnDatePickerEvent(final DatePickerEventObserver observer) {
         addDatePickerEventObserver(observer);
     }
     public void addDatePickerEventObserver(final DatePickerEventObserver observer) {
-        popup.addDatePickerEventObserver(observer);
+        if (observers.contains(observer)) { return; }
+        observers.add(observer);
     }
     public void removeDatePickerEventObserver(final DatePickerEventObserver observer) {
-        popup.removeDatePickerEventObserver(observer);
+        observers.remove(observer);
+    }
+
+
+    /**
+     * Commits the text that has been typed into the date field, e.g. before a table cell editor stops editing
+     * @return false if the typed text is not a valid or not an allowed date
+     */
+    boolean commitEdit() {
+        try {
+            dateField.commitEdit();
+            return true;
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+
+
+    // ******************** Private Methods ***********************************
+    /**
+     * Colors the text of the date field while the user is typing, uses the
+     * cached parser of the locale so no exception is thrown per keystroke.
+     * The document is never modified here.
+     */
+    private void validateInput() {
+        String    text  = dateField.getText();
+        LocalDate date  = dateParser.parse(text);
+        boolean   valid = text.trim().isEmpty() || (null != date && dateConstraints.isAllowed(date));
+        dateField.setForeground(valid ? validInputColor : INVALID_INPUT_COLOR);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Converts between the text of the date field and LocalDate values by using
+     * the DateParser of the locale and rejects dates that are not allowed by the
+     * date constraints. Only called on commit (enter, focus lost).
+     */
+    private class LocalDateFormatter extends JFormattedTextField.AbstractFormatter {
+
+        @Override public Object stringToValue(final String text) throws ParseException {
+            if (null == text || text.trim().isEmpty()) { return null; }
+            LocalDate date = dateParser.parse(text);
+            if (null == date) {
+                throw new ParseException(text + " is not a valid date", 0);
+            }
+            if (!dateConstraints.isAllowed(date)) {
+                throw new ParseException(text + " is not allowed", 0);
+            }
+            return date;
+        }
+
+        @Override public String valueToString(final Object value) {
+            return value instanceof TemporalAccessor ? dateParser.format((TemporalAccessor) value) : "";
+        }
+    }
+
+    /**
+     * One popup and its dialog per window, stored in the root pane of the window
+     * and bound to the DatePicker that opened it last
+     */
+    private static class SharedPopup {
+        private final DatePickerPopup popup;
+        private final JDialog         dialog;
+        private       DatePicker      datePicker;
+
+
+        SharedPopup(final DatePickerPopup popup, final Window owner) {
+            this.popup  = popup;
+            this.dialog = createDialog(owner, popup);
+        }
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import javax.swing.*;
+import javax.swing.table.TableCellEditor;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EventObject;
+import java.util.Locale;
+
+
+/**
+ * Edits ZonedDateTime or LocalDate values in a JTable. One DatePicker instance
+ * is reused for whichever cell is currently being edited.
+ */
+public class DatePickerCellEditor extends AbstractCellEditor implements TableCellEditor {
+    private final DatePicker datePicker;
+    private final ZoneId     zoneId;
+    private       int        clickCountToStart;
+    private       boolean    localDateValue;
+
+
+    // ******************** Constructors **************************************
+    public DatePickerCellEditor() {
+        this(Locale.getDefault(), ZoneId.systemDefault(), DisplayMode.DATE_ONLY);
+    }
+    public DatePickerCellEditor(final Locale locale, final ZoneId zoneId, final DisplayMode displayMode) {
+        this.zoneId            = zoneId;
+        this.clickCountToStart = 2;
+        this.datePicker        = new DatePicker(locale, DatePicker.CALENDAR_WEEK_HIDDEN, DatePicker.TODAYS_DATE_VISIBLE, ZonedDateTime.now(zoneId), zoneId, displayMode, Color.black, Color.red, true);
+        this.datePicker.setOnDatePickerEvent(e -> {
+            if (DatePickerEventType.DATE_SELECTED == e.getType()) {
+                stopCellEditing();
+            }
+        });
+    }
+
+
+    // ******************** Public Methods ************************************
+    public DatePicker getDatePicker() {
+        return datePicker;
+    }
+
+    public int getClickCountToStart() {
+        return clickCountToStart;
+    }
+    public void setClickCountToStart(final int clickCountToStart) {
+        this.clickCountToStart = clickCountToStart;
+    }
+
+    @Override public boolean isCellEditable(final EventObject event) {
+        if (event instanceof MouseEvent) {
+            return ((MouseEvent) event).getClickCount() >= clickCountToStart;
+        }
+        return true;
+    }
+
+    @Override public Component getTableCellEditorComponent(final JTable table, final Object value, final boolean isSelected, final int row, final int column) {
+        final ZonedDateTime date;
+        localDateValue = value instanceof LocalDate;
+        if (value instanceof ZonedDateTime) {
+            date = (ZonedDateTime) value;
+        } else if (value instanceof LocalDate) {
+            date = ((LocalDate) value).atStartOfDay(zoneId);
+        } else {
+            date = ZonedDateTime.now(zoneId);
+        }
+        datePicker.setCurrentDate(date);
+        datePicker.setSelectedDate(date);
+        return datePicker;
+    }
+
+    /**
+     * Commits the text that has been typed into the date field before editing stops, JTable stops
+     * editing on a click into another cell before the date field would commit it on focus lost
+     * @return false if the typed text is not a valid date and editing continues
+     */
+    @Override public boolean stopCellEditing() {
+        if (!datePicker.commitEdit()) { return false; }
+        return super.stopCellEditing();
+    }
+
+    @Override public Object getCellEditorValue() {
+        return localDateValue ? datePicker.getSelectedDate().toLocalDate() : datePicker.getSelectedDate();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import eu.hansolo.jdp.core.LocaleResources;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+
+
+/**
+ * Renders ZonedDateTime, OffsetDateTime, LocalDateTime, LocalDate and Instant values in a
+ * JTable with the short date format of the given locale, no DatePicker is created for rendering.
+ * An Instant is shown in the zone of the formatter or in the system default zone, values
+ * without a date like a LocalTime are shown with their toString() representation.
+ */
+public class DatePickerCellRenderer extends DefaultTableCellRenderer {
+    private DateTimeFormatter formatter;
+
+
+    // ******************** Constructors **************************************
+    public DatePickerCellRenderer() {
+        this(Locale.getDefault());
+    }
+    public DatePickerCellRenderer(final Locale locale) {
+        this(LocaleResources.of(locale).getDateFormatter());
+    }
+    public DatePickerCellRenderer(final DateTimeFormatter formatter) {
+        this.formatter = formatter;
+        setHorizontalAlignment(SwingConstants.RIGHT);
+    }
+
+
+    // ******************** Public Methods ************************************
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+    public void setFormatter(final DateTimeFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    @Override protected void setValue(final Object value) {
+        if (value instanceof Instant) {
+            ZoneId zoneId = null == formatter.getZone() ? ZoneId.systemDefault() : formatter.getZone();
+            setText(formatter.format(((Instant) value).atZone(zoneId)));
+        } else if (value instanceof TemporalAccessor && ((TemporalAccessor) value).isSupported(ChronoField.EPOCH_DAY)) {
+            setText(formatter.format((TemporalAccessor) value));
+        } else {
+            super.setValue(value);
+        }
+    }
+}
@@ -24,13 +24,18 @@ import java.util.EventObject;
 public class DatePickerEvent extends EventObject {
     private final DatePickerEventType type;
     private final ZonedDateTime       date;
+    private final ZonedDateTime       endDate;
 
 
     // ******************** Constructors **************************************
     public DatePickerEvent(final Object src, final DatePickerEventType type, final ZonedDateTime date) {
+        this(src, type, date, null);
+    }
+    public DatePickerEvent(final Object src, final DatePickerEventType type, final ZonedDateTime date, final ZonedDateTime endDate) {
         super(src);
-        this.type = type;
-        this.date = date;
+        this.type    = type;
+        this.date    = date;
+        this.endDate = endDate;
     }
 
 
@@ -42,4 +47,12 @@ public class DatePickerEvent extends EventObject {
     public ZonedDateTime getDate() {
         return date;
     }
+
+    /**
+     * Returns the last date of the selected range for RANGE_SELECTED events and null otherwise
+     * @return the last date of the selected range or null
+     */
+    public ZonedDateTime getEndDate() {
+        return endDate;
+    }
 }
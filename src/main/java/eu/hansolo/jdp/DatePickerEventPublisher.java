@@ -0,0 +1,210 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Asynchronous publisher of DatePickerEvents.
+ * Register it as an observer on a DatePicker or DatePickerPopup and subscribe to it
+ * with Flow.Subscribers. Events are handed over on the calling thread (usually the EDT)
+ * and delivered on the given executor, e.g. a virtual thread per task executor.
+ * Each subscriber gets its own bounded buffer and only receives as many events as it
+ * requested, if the buffer overflows the oldest event is dropped. With coalescing enabled
+ * a pending event is replaced by a newer event of the same type. A subscriber that throws
+ * is cancelled and receives onError() without affecting other subscribers. Events that
+ * are submitted after the publisher has been closed are dropped.
+ */
+public class DatePickerEventPublisher implements Flow.Publisher<DatePickerEvent>, DatePickerEventObserver, AutoCloseable {
+    public  static final int                     DEFAULT_BUFFER_SIZE = Flow.defaultBufferSize();
+    private        final Executor                executor;
+    private        final int                     bufferSize;
+    private        final boolean                 coalescing;
+    private        final List<EventSubscription> subscriptions;
+    private        volatile boolean              closed;
+
+
+    // ******************** Constructors **************************************
+    public DatePickerEventPublisher() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BUFFER_SIZE, false);
+    }
+    public DatePickerEventPublisher(final Executor executor) {
+        this(executor, DEFAULT_BUFFER_SIZE, false);
+    }
+    public DatePickerEventPublisher(final Executor executor, final int bufferSize, final boolean coalescing) {
+        if (bufferSize < 1) { throw new IllegalArgumentException("bufferSize must be positive"); }
+        this.executor      = Objects.requireNonNull(executor);
+        this.bufferSize    = bufferSize;
+        this.coalescing    = coalescing;
+        this.subscriptions = new CopyOnWriteArrayList<>();
+    }
+
+
+    // ******************** Public Methods ************************************
+    @Override public void subscribe(final Flow.Subscriber<? super DatePickerEvent> subscriber) {
+        Objects.requireNonNull(subscriber);
+        EventSubscription subscription = new EventSubscription(subscriber);
+        if (!closed) { subscriptions.add(subscription); }
+        // The subscription only starts to drain after onSubscribe(), so no signal can overtake it
+        executor.execute(() -> {
+            subscriber.onSubscribe(subscription);
+            if (closed) { subscription.completed = true; }
+            subscription.drain();
+        });
+    }
+
+    @Override public void onDatePickerEvent(final DatePickerEvent event) {
+        submit(event);
+    }
+
+    /**
+     * Hands the given event over to all subscribers without blocking, the event is dropped if the publisher is closed
+     * @param event the event to publish
+     */
+    public void submit(final DatePickerEvent event) {
+        if (closed) { return; }
+        for (EventSubscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    public int getNumberOfSubscribers() {
+        return subscriptions.size();
+    }
+
+    public boolean isCoalescing() {
+        return coalescing;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Completes all subscribers after they received their pending events
+     */
+    @Override public void close() {
+        if (closed) { return; }
+        closed = true;
+        for (EventSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private class EventSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super DatePickerEvent> subscriber;
+        private final ArrayDeque<DatePickerEvent>              buffer;
+        private final AtomicLong                               demand;
+        private final AtomicInteger                            wip;
+        private       volatile boolean                         cancelled;
+        private       volatile boolean                         completed;
+        private       volatile Throwable                       error;
+
+
+        EventSubscription(final Flow.Subscriber<? super DatePickerEvent> subscriber) {
+            this.subscriber = subscriber;
+            this.buffer     = new ArrayDeque<>();
+            this.demand     = new AtomicLong();
+            this.wip        = new AtomicInteger(1);
+        }
+
+
+        void offer(final DatePickerEvent event) {
+            if (cancelled) { return; }
+            synchronized (buffer) {
+                if (coalescing) {
+                    Iterator<DatePickerEvent> iterator = buffer.iterator();
+                    while (iterator.hasNext()) {
+                        if (iterator.next().getType() == event.getType()) { iterator.remove(); }
+                    }
+                }
+                if (buffer.size() == bufferSize) { buffer.pollFirst(); }
+                buffer.offerLast(event);
+            }
+            schedule();
+        }
+
+        void complete() {
+            completed = true;
+            schedule();
+        }
+
+        @Override public void request(final long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("non-positive subscription request");
+            } else {
+                demand.getAndAccumulate(n, (current, requested) -> current + requested < 0 ? Long.MAX_VALUE : current + requested);
+            }
+            schedule();
+        }
+
+        @Override public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (null != error && !cancelled) {
+                    cancel();
+                    subscriber.onError(error);
+                }
+                while (!cancelled && demand.get() > 0) {
+                    DatePickerEvent event;
+                    synchronized (buffer) { event = buffer.pollFirst(); }
+                    if (null == event) { break; }
+                    demand.decrementAndGet();
+                    try {
+                        subscriber.onNext(event);
+                    } catch (Throwable t) {
+                        cancel();
+                        subscriber.onError(t);
+                    }
+                }
+                if (completed && !cancelled) {
+                    boolean empty;
+                    synchronized (buffer) { empty = buffer.isEmpty(); }
+                    if (empty) {
+                        cancel();
+                        subscriber.onComplete();
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
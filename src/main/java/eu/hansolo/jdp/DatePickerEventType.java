@@ -19,6 +19,9 @@ package eu.hansolo.jdp;
 
 public enum DatePickerEventType {
     DATE_SELECTED,
+    TIME_ADJUSTING,
+    RANGE_STARTED,
+    RANGE_SELECTED,
     NEXT_DAY,
     PREVIOUS_DAY,
     NEXT_MONTH,
@@ -17,6 +17,13 @@
  */
 package eu.hansolo.jdp;
 
+import eu.hansolo.jdp.core.CalendarModel;
+import eu.hansolo.jdp.core.DateConstraints;
+import eu.hansolo.jdp.core.DateParser;
+import eu.hansolo.jdp.core.LocaleResources;
+import eu.hansolo.jdp.core.MonthLayout;
+import eu.hansolo.jdp.core.TodayService;
+
 import javax.swing.*;
 import javax.swing.JSpinner.DefaultEditor;
 import javax.swing.border.EmptyBorder;
@@ -26,33 +33,51 @@ import javax.swing.plaf.basic.BasicBorders.ButtonBorder;
 import javax.swing.plaf.metal.MetalLookAndFeel;
 import javax.swing.plaf.nimbus.NimbusLookAndFeel;
 import java.awt.*;
+import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.time.DateTimeException;
-import java.time.DayOfWeek;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.FocusListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.FormatStyle;
-import java.time.temporal.WeekFields;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.ResourceBundle;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static eu.hansolo.jdp.DisplayMode.DATE_AND_TIME;
 import static eu.hansolo.jdp.DisplayMode.DATE_ONLY;
+import static eu.hansolo.jdp.core.MonthLayout.DAYS_PER_WEEK;
+import static eu.hansolo.jdp.core.MonthLayout.NO_OF_CELLS;
+import static eu.hansolo.jdp.core.MonthLayout.NO_OF_WEEKS;
 
 
 public class DatePickerPopup extends JComponent {
-    private static final String                        RESOURCE_BUNDLE_NAME  = "eu.hansolo.jdp.DatePickerBundle";
-    private static final DateTimeFormatter             DTF                   = DateTimeFormatter.ofPattern("MMM yyyy");
+            static final DateTimeFormatter             DTF                   = DateTimeFormatter.ofPattern("MMM yyyy");
+    private static final int                           TIME_COMMIT_DELAY     = 500;
+    private static final int                           CELLS                 = 1;
+    private static final int                           LAYOUT                = 2;
+    private static final int                           SELECTION             = 4;
+    private static final long                          NO_HOVER              = Long.MIN_VALUE;
+            static final int                           RANGE_NONE            = 0;
+            static final int                           RANGE_INSIDE          = 1;
+            static final int                           RANGE_END             = 2;
     private static final int                           MIN_WIDTH             = 120;
     private static final int                           MIN_HEIGHT            = 64;
     private static final int                           PREFERRED_WIDTH       = 330;
@@ -61,38 +86,49 @@ public class DatePickerPopup extends JComponent {
     private static final int                           MAX_HEIGHT            = 2048;
     private              int                           oldWidth              = PREFERRED_WIDTH;
     private              int                           oldHeight             = PREFERRED_HEIGHT;
-    protected            DateTimeFormatter             timeFormatter;
-    protected            DateTimeFormatter             dateFormatter;
-    private              DateTimeFormatter             todaysDateFormatter;
+    protected volatile   DateTimeFormatter             timeFormatter;
+    protected volatile   DateTimeFormatter             dateFormatter;
+    private volatile     DateParser                    dateParser;
     private              List<DatePickerEventObserver> observers;
-    private              Locale                        locale;
-    private              boolean                       calendarWeekVisible;
-    private              boolean                       todaysDateVisible;
-    private              DisplayMode                   displayMode;
-    private              Color                         textColor;
-    private              Color                         weekendColor;
-    private              String                        timeFormat;
-    private              String                        dateFormat;
-    private              ResourceBundle                resourceBundle;
-    private              ZonedDateTime                 selectedDate;
+    private volatile     Locale                        locale;
+    private volatile     boolean                       calendarWeekVisible;
+    private volatile     boolean                       todaysDateVisible;
+    private volatile     DisplayMode                   displayMode;
+    private volatile     GridStyle                     gridStyle;
+    private volatile     Color                         textColor;
+    private volatile     Color                         weekendColor;
+    private volatile     String                        timeFormat;
+    private volatile     String                        dateFormat;
+    private volatile     LocaleResources               localeResources;
+    private volatile     ZonedDateTime                 selectedDate;
     private              LocalTime                     selectedTime;
-    private              ZonedDateTime                 currentDate;
-    private              ZoneId                        zoneId;
-    private              Font                          currentMonthFont;
-    private              Font                          daysOfWeekFont;
-    private              Font                          calendarWeekFont;
-    private              Font                          todaysDateFont;
-    private              Font                          dayFont;
-    private              Font                          spinnerFont;
+    private volatile     ZonedDateTime                 currentDate;
+    private volatile     ZoneId                        zoneId;
+    private volatile     DateConstraints               dateConstraints;
+    private              int                           disabledDays;
+    private volatile     DayDecorationLoader           decorationLoader;
+    private              DayDecoration[]               decorations;
+    private volatile     SelectionMode                 selectionMode;
+    private volatile     LocalDate                     rangeStart;
+    private volatile     LocalDate                     rangeEnd;
+    private              long                          firstEpochDay;
+    private              long                          hoverEpochDay         = NO_HOVER;
+    private              LocalDate                     appliedSelection;
+    private              LocalDate                     focusedDate;
+    private        final int[]                         rangeStates           = new int[32];
+    private              PopupMetrics                  metrics;
     private              List<JLabel>                  daysOfWeek;
     private              List<JLabel>                  calendarWeeks;
     private              List<JButton>                 days;
-    private              String[]                      weekDays;
-    private              String[]                      weekDaysLong;
-    private              DayOfWeek                     startOfWeek;
-    private              WeekFields                    weekFields;
+    private              int[]                         cellDays;
+    private              List<String>                  headerNames;
+    private              MonthLayout                   monthLayout;
     private              JPanel                        buttonPane;
     private              JPanel                        calendarPane;
+    private              JLabel                        calendarWeekHeader;
+    private              CalendarGrid                  calendarGrid;
+    private              MonthList                     monthList;
+    private              JScrollPane                   monthScrollPane;
     private              JButton                       previousYearButton;
     private              JButton                       previousMonthButton;
     private              JLabel                        currentMonthLabel;
@@ -100,10 +136,19 @@ public class DatePickerPopup extends JComponent {
     private              JButton                       nextYearButton;
     private              JSpinner                      timeSpinner;
     private              JLabel                        todaysDateLabel;
+    private              int                           controlHeight;
+    private              int                           spacer;
     private              ActionListener                controlClickListener;
     private              ActionListener                onClickListener;
+    private              MouseAdapter                  hoverListener;
+    private              FocusListener                 dayFocusListener;
+    private              Action                        selectFocusedAction;
     private              ChangeListener                timeChangeListener;
+    private              FocusListener                 timeFocusListener;
+    private              Timer                         timeCommitTimer;
+    private              boolean                       timeAdjusting;
     private              boolean                       isDirty;
+    private        final AtomicInteger                 pendingUpdate         = new AtomicInteger();
 
 
     // ******************** Constructors **************************************
@@ -123,38 +168,35 @@ public class DatePickerPopup extends JComponent {
         this(locale, false, true, selectedDate, ZoneId.systemDefault(), DATE_AND_TIME, Color.black, Color.red);
     }
     public DatePickerPopup(final Locale locale, final boolean calendarWeekVisible, final boolean todaysDateVisible, final ZonedDateTime selectedDate, final ZoneId zoneId, final DisplayMode displayMode, final Color textColor, final Color weekEndColor) {
+        this(locale, calendarWeekVisible, todaysDateVisible, selectedDate, zoneId, displayMode, textColor, weekEndColor, GridStyle.BUTTONS);
+    }
+    public DatePickerPopup(final Locale locale, final boolean calendarWeekVisible, final boolean todaysDateVisible, final ZonedDateTime selectedDate, final ZoneId zoneId, final DisplayMode displayMode, final Color textColor, final Color weekEndColor, final GridStyle gridStyle) {
         setBorder(new EmptyBorder(1, 1, 1, 1));
         this.locale                  = locale;
-
-        SimpleDateFormat datePattern = (SimpleDateFormat) DateFormat.getDateInstance(DateFormat.DEFAULT, locale);
-        SimpleDateFormat timePattern = (SimpleDateFormat) DateFormat.getTimeInstance(DateFormat.DEFAULT, locale);
-
-        this.dateFormatter           = DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT).withLocale(locale);
-        this.timeFormatter           = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT).withLocale(locale);
-        this.dateFormat              = datePattern.toLocalizedPattern();
-        this.timeFormat              = timePattern.toLocalizedPattern();
+        this.localeResources         = LocaleResources.of(locale);
+        this.dateFormatter           = localeResources.getDateFormatter();
+        this.dateParser              = localeResources.getDateParser();
+        this.timeFormatter           = localeResources.getTimeFormatter();
+        this.dateFormat              = localeResources.getDateFormat();
+        this.timeFormat              = localeResources.getTimeFormat();
         this.zoneId                  = zoneId;
-        this.todaysDateFormatter     = DateTimeFormatter.ofLocalizedDate(FormatStyle.FULL).withLocale(locale);
         this.calendarWeekVisible     = calendarWeekVisible;
         this.todaysDateVisible       = todaysDateVisible;
         this.displayMode             = displayMode;
+        this.gridStyle               = gridStyle;
         this.textColor               = textColor;
         this.weekendColor            = weekEndColor;
-        this.resourceBundle          = ResourceBundle.getBundle(RESOURCE_BUNDLE_NAME, this.locale);
         this.observers               = new CopyOnWriteArrayList();
         this.selectedDate            = selectedDate;
         this.selectedTime            = selectedDate.toLocalTime();
         this.currentDate             = selectedDate;
-        this.currentMonthFont        = new Font("SansSerif", Font.BOLD, 10);
-        this.daysOfWeekFont          = new Font("SansSerif", Font.PLAIN, 10);
-        this.calendarWeekFont        = new Font("SansSerif", Font.PLAIN, 8);
-        this.dayFont                 = new Font("SansSerif", Font.PLAIN, 10);
-        this.spinnerFont             = new Font("SansSerif", Font.PLAIN, 12);
+        this.dateConstraints         = DateConstraints.NONE;
+        this.selectionMode           = SelectionMode.SINGLE;
+        this.metrics                 = PopupMetrics.DEFAULT;
         this.daysOfWeek              = new ArrayList<>();
         this.calendarWeeks           = new ArrayList<>();
-        this.days                    = new ArrayList<>();
-        this.weekFields              = WeekFields.of(this.locale);
-        this.startOfWeek             = weekFields.getFirstDayOfWeek();
+        this.days                    = new ArrayList<>(NO_OF_CELLS);
+        this.cellDays                = new int[NO_OF_CELLS];
         this.controlClickListener    = e -> {
             Object src = e.getSource();
             if (src.equals(previousYearButton)) {
@@ -169,38 +211,56 @@ public class DatePickerPopup extends JComponent {
         };
         this.onClickListener         = e -> {
             JButton button = (JButton) e.getSource();
-            ZonedDateTime selected = ZonedDateTime.of(LocalDate.of(getCurrentDate().getYear(), getCurrentDate().getMonthValue(), Integer.parseInt(button.getText())), selectedTime, zoneId);
-            setSelectedDate(selected);
-            button.setSelected(true);
+            selectDay(Integer.parseInt(button.getText()));
             button.requestFocus();
-            fireDatePickerEvent(new DatePickerEvent(DatePickerPopup.this, DatePickerEventType.DATE_SELECTED, selected));
+        };
+        this.hoverListener           = new MouseAdapter() {
+            @Override public void mouseEntered(final MouseEvent e) { hoverDay(Integer.parseInt(((JButton) e.getSource()).getText())); }
+            @Override public void mouseExited(final MouseEvent e) { hoverDay(0); }
+        };
+        this.dayFocusListener        = new FocusAdapter() {
+            @Override public void focusGained(final FocusEvent e) {
+                int cell = days.indexOf(e.getSource());
+                if (cell >= 0 && 0 != cellDays[cell]) { focusedDate = monthLayout.getYearMonth().atDay(cellDays[cell]); }
+            }
+        };
+        this.selectFocusedAction     = new AbstractAction("selectFocused") {
+            @Override public void actionPerformed(final ActionEvent e) { selectDate(getFocusedDate()); }
         };
         this.timeChangeListener      = e -> {
-            this.selectedTime = LocalTime.ofInstant((((Date) timeSpinner.getValue()).toInstant()), getZoneId());
+            this.selectedTime  = LocalTime.ofInstant((((Date) timeSpinner.getValue()).toInstant()), getZoneId());
+            this.timeAdjusting = true;
             ZonedDateTime selected = ZonedDateTime.of(getSelectedDate().toLocalDate(), selectedTime, getZoneId());
-            fireDatePickerEvent(new DatePickerEvent(DatePickerPopup.this, DatePickerEventType.DATE_SELECTED, selected));
+            fireDatePickerEvent(new DatePickerEvent(DatePickerPopup.this, DatePickerEventType.TIME_ADJUSTING, selected));
+            timeCommitTimer.restart();
+        };
+        this.timeFocusListener       = new FocusAdapter() {
+            @Override public void focusLost(final FocusEvent e) { commitTime(); }
         };
+        this.timeCommitTimer         = new Timer(TIME_COMMIT_DELAY, e -> commitTime());
+        this.timeCommitTimer.setRepeats(false);
 
         init();
         registerListeners();
+        registerKeyBindings();
+        reInit();
     }
 
 
     // ******************** Private Methods ***********************************
     private void init() {
+        PopupEvent event = new PopupEvent.Init();
+        long       start = beginMeasure(event);
+
         setLayout(new GridBagLayout());
-        GridBagConstraints gridConstraints = new GridBagConstraints();
 
 
         // ******************** Button Pane ***********************************
         buttonPane = new JPanel();
         buttonPane.setLayout(new GridBagLayout());
-        GridBagConstraints topGridConstraints = new GridBagConstraints();
 
         int labelWidth = 96;
         int buttonWidth;
-        int controlHeight;
-        int spacer;
         LookAndFeel laf = UIManager.getLookAndFeel();
         if (laf instanceof MetalLookAndFeel) {
             buttonWidth   = 40;
@@ -221,58 +281,139 @@ public class DatePickerPopup extends JComponent {
         previousYearButton.setMinimumSize(new Dimension(buttonWidth, controlHeight));
         previousYearButton.setMaximumSize(new Dimension(buttonWidth, controlHeight));
         previousYearButton.setMargin(new Insets(0, 0, 0, 0));
-        topGridConstraints.fill      = GridBagConstraints.HORIZONTAL;
-        topGridConstraints.gridy     = 0;
-        topGridConstraints.gridwidth = 1;
-        topGridConstraints.weightx   = 0.1;
-        topGridConstraints.insets    = new Insets(1, 1, 1, 1);
-        buttonPane.add(previousYearButton, topGridConstraints);
 
         previousMonthButton = new JButton("\u25c0");
         previousMonthButton.setPreferredSize(new Dimension(buttonWidth, controlHeight));
         previousMonthButton.setMinimumSize(new Dimension(buttonWidth, controlHeight));
         previousMonthButton.setMaximumSize(new Dimension(buttonWidth, controlHeight));
         previousMonthButton.setMargin(new Insets(0, 0, 0, 0));
-        topGridConstraints.fill      = GridBagConstraints.HORIZONTAL;
-        topGridConstraints.gridy     = 0;
-        topGridConstraints.gridwidth = 1;
-        topGridConstraints.weightx   = 0.1;
-        topGridConstraints.insets    = new Insets(1, spacer, 1, spacer);
-        buttonPane.add(previousMonthButton, topGridConstraints);
 
         currentMonthLabel = new JLabel(DTF.format(getCurrentDate()));
         currentMonthLabel.setPreferredSize(new Dimension(labelWidth, controlHeight));
         currentMonthLabel.setMinimumSize(new Dimension(labelWidth, controlHeight));
         currentMonthLabel.setMaximumSize(new Dimension(labelWidth, controlHeight));
         currentMonthLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        topGridConstraints.fill      = GridBagConstraints.HORIZONTAL;
-        topGridConstraints.gridy     = 0;
-        topGridConstraints.weightx   = 0.6;
-        topGridConstraints.gridwidth = isCalendarWeekVisible() ? 4 : 3;
-        topGridConstraints.insets    = new Insets(1, spacer, 1, spacer);
-        buttonPane.add(currentMonthLabel, topGridConstraints);
 
         nextMonthButton = new JButton("\u25ba");
         nextMonthButton.setPreferredSize(new Dimension(buttonWidth, controlHeight));
         nextMonthButton.setMinimumSize(new Dimension(buttonWidth, controlHeight));
         nextMonthButton.setMaximumSize(new Dimension(buttonWidth, controlHeight));
         nextMonthButton.setMargin(new Insets(0, 0, 0, 0));
-        topGridConstraints.fill      = GridBagConstraints.HORIZONTAL;
-        topGridConstraints.gridy     = 0;
-        topGridConstraints.gridwidth = 1;
-        topGridConstraints.weightx   = 0.1;
-        topGridConstraints.insets    = new Insets(1, spacer, 1, spacer);
-        buttonPane.add(nextMonthButton, topGridConstraints);
 
         nextYearButton = new JButton("\u25ba\u25ba");
         nextYearButton.setPreferredSize(new Dimension(buttonWidth, controlHeight));
         nextYearButton.setMinimumSize(new Dimension(buttonWidth, controlHeight));
         nextYearButton.setMaximumSize(new Dimension(buttonWidth, controlHeight));
         nextYearButton.setMargin(new Insets(0, 0, 0, 0));
+
+
+        // ******************** Time Pane *********************************
+        SpinnerDateModel model = new SpinnerDateModel();
+        model.setCalendarField(Calendar.MINUTE);
+
+        timeSpinner = new JSpinner(model);
+        timeSpinner.setPreferredSize(new Dimension(100, 20));
+        timeSpinner.setMinimumSize(new Dimension(100, 20));
+        timeSpinner.setMaximumSize(new Dimension(100, 20));
+
+
+        // ******************** Todays date Pane **************************
+        todaysDateLabel = new JLabel("");
+        todaysDateLabel.setPreferredSize(new Dimension(Integer.MAX_VALUE, controlHeight));
+        todaysDateLabel.setMinimumSize(new Dimension(Integer.MAX_VALUE, controlHeight));
+        todaysDateLabel.setMaximumSize(new Dimension(Integer.MAX_VALUE, controlHeight));
+        todaysDateLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        endMeasure(event, DatePickerStatistics.Operation.INIT, start);
+    }
+
+    private void createCalendarPane() {
+        // The cells are created once and only their content is updated when the month changes
+        calendarPane = new JPanel();
+        calendarPane.setComponentOrientation(ComponentOrientation.LEFT_TO_RIGHT);
+
+        calendarWeekHeader = new JLabel("");
+
+        for (int i = 0; i < DAYS_PER_WEEK; i++) {
+            JLabel dayLabel = new JLabel("");
+            dayLabel.setHorizontalTextPosition(SwingConstants.CENTER);
+            dayLabel.setHorizontalAlignment(SwingConstants.CENTER);
+            dayLabel.setFont(metrics.getDaysOfWeekFont());
+            daysOfWeek.add(dayLabel);
+        }
+
+        for (int r = 0; r < NO_OF_WEEKS; r++) {
+            JLabel calendarWeek = new JLabel("");
+            calendarWeek.setPreferredSize(new Dimension(20, 10));
+            calendarWeek.setMinimumSize(new Dimension(20, 10));
+            calendarWeek.setMaximumSize(new Dimension(20, 10));
+            calendarWeek.setHorizontalTextPosition(SwingConstants.CENTER);
+            calendarWeek.setHorizontalAlignment(SwingConstants.CENTER);
+            calendarWeek.setFont(metrics.getCalendarWeekFont());
+            calendarWeeks.add(calendarWeek);
+        }
+
+        for (int i = 0; i < NO_OF_CELLS; i++) {
+            JButton button = new JButton("");
+            button.setPreferredSize(new Dimension(40, 20));
+            button.setMinimumSize(new Dimension(40, 20));
+            button.setMaximumSize(new Dimension(40, 20));
+            button.setHorizontalTextPosition(SwingConstants.CENTER);
+            button.setVerticalTextPosition(SwingConstants.TOP);
+            button.setIconTextGap(0);
+            button.setFont(metrics.getDayFont());
+            button.setMargin(new Insets(0, 0, 0, 0));
+            button.addActionListener(onClickListener);
+            button.addMouseListener(hoverListener);
+            button.addFocusListener(dayFocusListener);
+            bindSelectKeys(button);
+            days.add(button);
+        }
+    }
+
+    private void createMonthList() {
+        monthList       = new MonthList(this, YearMonth.from(getCurrentDate()));
+        bindSelectKeys(monthList);
+        monthScrollPane = new JScrollPane(monthList, ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED, ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        monthScrollPane.setBorder(new EmptyBorder(0, 0, 0, 0));
+        monthScrollPane.setOpaque(false);
+        monthScrollPane.getViewport().setOpaque(false);
+        // The month at the top of the list becomes the current month
+        monthScrollPane.getViewport().addChangeListener(e -> {
+            YearMonth topMonth = monthList.getTopMonth();
+            if (!topMonth.equals(YearMonth.from(getCurrentDate()))) {
+                setCurrentDate(getCurrentDate().withYear(topMonth.getYear()).withMonth(topMonth.getMonthValue()));
+            }
+        });
+    }
+
+    private void layoutPanes() {
+        removeAll();
+        GridBagConstraints gridConstraints = new GridBagConstraints();
+
+
+        // ******************** Button Pane ***********************************
+        buttonPane.removeAll();
+        GridBagConstraints topGridConstraints = new GridBagConstraints();
+
         topGridConstraints.fill      = GridBagConstraints.HORIZONTAL;
         topGridConstraints.gridy     = 0;
         topGridConstraints.gridwidth = 1;
         topGridConstraints.weightx   = 0.1;
+        topGridConstraints.insets    = new Insets(1, 1, 1, 1);
+        buttonPane.add(previousYearButton, topGridConstraints);
+
+        topGridConstraints.insets    = new Insets(1, spacer, 1, spacer);
+        buttonPane.add(previousMonthButton, topGridConstraints);
+
+        topGridConstraints.weightx   = 0.6;
+        topGridConstraints.gridwidth = isCalendarWeekVisible() ? 4 : 3;
+        buttonPane.add(currentMonthLabel, topGridConstraints);
+
+        topGridConstraints.gridwidth = 1;
+        topGridConstraints.weightx   = 0.1;
+        buttonPane.add(nextMonthButton, topGridConstraints);
+
         topGridConstraints.insets    = new Insets(1, 1, 1, 1);
         buttonPane.add(nextYearButton, topGridConstraints);
 
@@ -281,135 +422,55 @@ public class DatePickerPopup extends JComponent {
         gridConstraints.gridy     = 0;
         gridConstraints.weightx   = 1;
         gridConstraints.weighty   = 0.25;
-        //gridConstraints.insets    = new Insets(0, 0, 2, 0);
         add(buttonPane, gridConstraints);
 
 
         // ******************** Calendar Pane *********************************
-        if (DATE_ONLY == getDisplayMode() || DATE_AND_TIME == getDisplayMode()) {
-            int noOfColumns = isCalendarWeekVisible() ? 8 : 7;
-            int noOfRows    = 7;
-            calendarPane = new JPanel();
-            calendarPane.setComponentOrientation(ComponentOrientation.LEFT_TO_RIGHT);
-            calendarPane.setLayout(new GridLayout(noOfRows, noOfColumns, 1, 1));
-            //calendarPane.setLayout(new GridLayout(noOfRows, noOfColumns));
-
-            if (isCalendarWeekVisible()) {
-                JLabel label = new JLabel("");
-                calendarPane.add(label);
+        if ((DATE_ONLY == getDisplayMode() || DATE_AND_TIME == getDisplayMode()) && GridStyle.PAINTED == getGridStyle()) {
+            if (null == calendarGrid) {
+                calendarGrid = new CalendarGrid(this);
+                bindSelectKeys(calendarGrid);
             }
 
-            weekDays = getWeekDays();
-            weekDaysLong = getWeekDaysLong();
-
-            // Days of week
-            for (int i = 0; i < weekDays.length; i++) {
-                JLabel dayLabel = new JLabel(weekDays[i]);
-                dayLabel.setHorizontalTextPosition(SwingConstants.CENTER);
-                dayLabel.setHorizontalAlignment(SwingConstants.CENTER);
-                dayLabel.setFont(daysOfWeekFont);
-                if (DayOfWeek.MONDAY == startOfWeek) {
-                    if (i == 5 || i == 6) {
-                        dayLabel.setForeground(getWeekendColor());
-                    } else {
-                        dayLabel.setForeground(getTextColor());
-                    }
-                } else {
-                    if (i == 0 || i == 6) {
-                        dayLabel.setForeground(getWeekendColor());
-                    } else {
-                        dayLabel.setForeground(getTextColor());
-                    }
-                }
-                calendarPane.add(dayLabel);
-                daysOfWeek.add(dayLabel);
+            gridConstraints.fill      = GridBagConstraints.BOTH;
+            gridConstraints.gridx     = 0;
+            gridConstraints.gridy     = 1;
+            gridConstraints.gridwidth = isCalendarWeekVisible() ? 8 : 7;
+            gridConstraints.weightx   = 1;
+            gridConstraints.weighty   = 0.75;
+            add(calendarGrid, gridConstraints);
+        } else if ((DATE_ONLY == getDisplayMode() || DATE_AND_TIME == getDisplayMode()) && GridStyle.SCROLLING == getGridStyle()) {
+            if (null == monthList) {
+                createMonthList();
             }
 
-            int        day            = 1;
-            int        month          = currentDate.getMonthValue();
-            int        year           = currentDate.getYear();
-            LocalDate  currentDate    = LocalDate.of(year, month, day);
-            WeekFields weekFields     = WeekFields.of(this.locale);
-            int        firstDayOffset = currentDate.getDayOfWeek().getValue() - (DayOfWeek.MONDAY == startOfWeek ? 1 : 0);
-            int        firstWeekNo    = currentDate.get(weekFields.weekOfWeekBasedYear());
+            gridConstraints.fill      = GridBagConstraints.BOTH;
+            gridConstraints.gridx     = 0;
+            gridConstraints.gridy     = 1;
+            gridConstraints.gridwidth = isCalendarWeekVisible() ? 8 : 7;
+            gridConstraints.weightx   = 1;
+            gridConstraints.weighty   = 0.75;
+            add(monthScrollPane, gridConstraints);
+        } else if (DATE_ONLY == getDisplayMode() || DATE_AND_TIME == getDisplayMode()) {
+            if (null == calendarPane) {
+                createCalendarPane();
+            }
+            int noOfColumns = isCalendarWeekVisible() ? 8 : 7;
+            int noOfRows    = NO_OF_WEEKS + 1;
+            calendarPane.removeAll();
+            calendarPane.setLayout(new GridLayout(noOfRows, noOfColumns, 1, 1));
 
-            JLabel calendarWeek = new JLabel(String.format("%01d", firstWeekNo));
-            calendarWeek.setHorizontalTextPosition(SwingConstants.CENTER);
-            calendarWeek.setHorizontalAlignment(SwingConstants.CENTER);
-            calendarWeek.setFont(calendarWeekFont);
-            calendarWeek.setForeground(getTextColor());
             if (isCalendarWeekVisible()) {
-                calendarPane.add(calendarWeek);
+                calendarPane.add(calendarWeekHeader);
             }
-            calendarWeeks.add(calendarWeek);
+            daysOfWeek.forEach(dayLabel -> calendarPane.add(dayLabel));
 
-            // First row
-            int dayOffset = isCalendarWeekVisible() ? 1 : 0;
-            for (int i = dayOffset; i < noOfColumns; i++) {
-                if (i < firstDayOffset + dayOffset) {
-                    JLabel offsetLabel = new JLabel("");
-                    calendarPane.add(offsetLabel);
-                } else {
-                    try {
-                        JButton button = new JButton(Integer.toString(day));
-                        button.setPreferredSize(new Dimension(40, 20));
-                        button.setMinimumSize(new Dimension(40, 20));
-                        button.setMaximumSize(new Dimension(40, 20));
-                        button.setHorizontalTextPosition(SwingConstants.CENTER);
-                        button.setFont(dayFont);
-                        button.setForeground(getTextColor());
-                        if (day == getCurrentDate().getDayOfMonth()) {
-                            button.setSelected(true);
-                            button.requestFocus();
-                        }
-                        calendarPane.add(button);
-                        days.add(button);
-                        day++;
-                    } catch (DateTimeException e) {
-                        continue;
-                    }
+            for (int r = 0; r < NO_OF_WEEKS; r++) {
+                if (isCalendarWeekVisible()) {
+                    calendarPane.add(calendarWeeks.get(r));
                 }
-            }
-
-            // All other rows
-            int startRow = firstDayOffset == 7 ? 2 : 2;
-            for (int r = startRow; r < noOfRows; r++) {
-                for (int c = 0; c < noOfColumns; c++) {
-                    try {
-                        currentDate = LocalDate.of(year, month, day);
-                        if (isCalendarWeekVisible() && c == 0) {
-                            weekFields = WeekFields.of(locale);
-                            calendarWeek = new JLabel(String.format("%01d", currentDate.get(weekFields.weekOfWeekBasedYear())));
-                            calendarWeek.setPreferredSize(new Dimension(20, 10));
-                            calendarWeek.setMinimumSize(new Dimension(20, 10));
-                            calendarWeek.setMaximumSize(new Dimension(20, 10));
-                            calendarWeek.setHorizontalTextPosition(SwingConstants.CENTER);
-                            calendarWeek.setHorizontalAlignment(SwingConstants.CENTER);
-                            calendarWeek.setFont(calendarWeekFont);
-                            calendarWeek.setForeground(getTextColor());
-                            calendarPane.add(calendarWeek);
-                            calendarWeeks.add(calendarWeek);
-                        } else {
-                            JButton button = new JButton(Integer.toString(day));
-                            button.setPreferredSize(new Dimension(40, 20));
-                            button.setMinimumSize(new Dimension(40, 20));
-                            button.setMaximumSize(new Dimension(40, 20));
-                            button.setHorizontalTextPosition(SwingConstants.CENTER);
-                            button.setFont(dayFont);
-                            button.setForeground(getTextColor());
-                            if (day == getCurrentDate().getDayOfMonth()) {
-                                button.setSelected(true);
-                                button.requestFocus();
-                            }
-                            calendarPane.add(button);
-                            days.add(button);
-                            day++;
-                        }
-                    } catch (DateTimeException e) {
-                        JLabel offsetLabel = new JLabel("");
-                        calendarPane.add(offsetLabel);
-                        continue;
-                    }
+                for (int c = 0; c < DAYS_PER_WEEK; c++) {
+                    calendarPane.add(days.get(r * DAYS_PER_WEEK + c));
                 }
             }
 
@@ -425,21 +486,10 @@ public class DatePickerPopup extends JComponent {
 
         // ******************** Time Pane *********************************
         if (DisplayMode.TIME_ONLY == getDisplayMode() || DATE_AND_TIME == getDisplayMode()) {
-            Date             date      = Date.from(selectedTime.atDate(getSelectedDate().toLocalDate()).atZone(getZoneId()).toInstant());
-            Date             startTime = Date.from((ZonedDateTime.of(getSelectedDate().toLocalDate(), LocalTime.MIN, getZoneId())).toInstant());
-            Date             endTime   = Date.from((ZonedDateTime.of(getSelectedDate().toLocalDate(), LocalTime.MAX, getZoneId())).toInstant());
-            SpinnerDateModel model     = new SpinnerDateModel(startTime, null, endTime, Calendar.MINUTE);
-
-            timeSpinner = new JSpinner();
-            timeSpinner.setModel(model);
-            timeSpinner.setValue(date);
-            timeSpinner.setPreferredSize(new Dimension(100, 20));
-            timeSpinner.setMinimumSize(new Dimension(100, 20));
-            timeSpinner.setMaximumSize(new Dimension(100, 20));
             timeSpinner.setEditor(new JSpinner.DateEditor(timeSpinner, getTimeFormat()));
-            timeSpinner.addChangeListener(timeChangeListener);
             JSpinner.DefaultEditor spinnerEditor = (DefaultEditor) timeSpinner.getEditor();
             spinnerEditor.getTextField().setHorizontalAlignment(JTextField.CENTER);
+            spinnerEditor.getTextField().addFocusListener(timeFocusListener);
 
             gridConstraints.fill      = GridBagConstraints.VERTICAL;
             gridConstraints.gridx     = 0;
@@ -453,13 +503,6 @@ public class DatePickerPopup extends JComponent {
 
         // ******************** Todays date Pane **************************
         if (isTodaysDateVisible()) {
-            ZonedDateTime now = ZonedDateTime.now(getZoneId());
-            todaysDateLabel = new JLabel(resourceBundle.getString("todays_date") + now.format(todaysDateFormatter));
-            todaysDateLabel.setPreferredSize(new Dimension(Integer.MAX_VALUE, controlHeight));
-            todaysDateLabel.setMinimumSize(new Dimension(Integer.MAX_VALUE, controlHeight));
-            todaysDateLabel.setMaximumSize(new Dimension(Integer.MAX_VALUE, controlHeight));
-            todaysDateLabel.setHorizontalAlignment(SwingConstants.CENTER);
-
             gridConstraints.fill      = GridBagConstraints.VERTICAL;
             gridConstraints.gridx     = 0;
             gridConstraints.gridy     = 3;
@@ -468,29 +511,232 @@ public class DatePickerPopup extends JComponent {
             gridConstraints.weighty   = 0.5;
             add(todaysDateLabel, gridConstraints);
         }
+
+        applyMetrics();
     }
 
-    private void reInit() {
-        removeAll();
+    private void updateCells() {
+        PopupEvent event = new PopupEvent.UpdateCells();
+        long       start = beginMeasure(event);
+        monthLayout = MonthLayout.of(YearMonth.from(getCurrentDate()), localeResources.getWeekFields());
+        currentMonthLabel.setText(DTF.format(getCurrentDate()));
+
+        // Constraints
+        YearMonth       yearMonth   = monthLayout.getYearMonth();
+        DateConstraints constraints = getDateConstraints();
+        disabledDays = constraints.getDisabledDays(yearMonth);
+        previousYearButton.setEnabled(isNavigable(yearMonth.minusYears(1), constraints));
+        previousMonthButton.setEnabled(isNavigable(yearMonth.minusMonths(1), constraints));
+        nextMonthButton.setEnabled(isNavigable(yearMonth.plusMonths(1), constraints));
+        nextYearButton.setEnabled(isNavigable(yearMonth.plusYears(1), constraints));
+
+        // Decorations, the adjacent months are prefetched to make navigation smooth
+        DayDecorationLoader loader = decorationLoader;
+        decorations = null == loader ? null : loader.get(yearMonth);
+        if (null != loader) {
+            loader.prefetch(yearMonth.minusMonths(1));
+            loader.prefetch(yearMonth.plusMonths(1));
+        }
 
-        previousYearButton.removeActionListener(controlClickListener);
-        previousMonthButton.removeActionListener(controlClickListener);
-        nextMonthButton.removeActionListener(controlClickListener);
-        nextYearButton.removeActionListener(controlClickListener);
+        if (null != calendarGrid) {
+            calendarGrid.repaint();
+        }
+        if (null != monthList && GridStyle.SCROLLING == getGridStyle()) {
+            monthList.scrollToMonth(YearMonth.from(getCurrentDate()));
+            monthList.repaint();
+        }
 
-        if (null != timeSpinner) {
-            timeSpinner.removeChangeListener(timeChangeListener);
+        // Days of week
+        for (int i = 0; i < daysOfWeek.size(); i++) {
+            daysOfWeek.get(i).setForeground(monthLayout.isWeekend(i) ? getWeekendColor() : getTextColor());
         }
 
-        days.forEach(button -> button.removeActionListener(onClickListener));
-        daysOfWeek.clear();
-        calendarWeeks.clear();
-        days.clear();
+        // Days and calendar weeks
+        appliedSelection = getSelectedDate().toLocalDate();
+        boolean selectedMonth = SelectionMode.SINGLE == getSelectionMode() && isInCurrentMonth(appliedSelection);
+        for (int r = 0; r < calendarWeeks.size(); r++) {
+            int    weekNumber   = monthLayout.getWeekNumber(r);
+            JLabel calendarWeek = calendarWeeks.get(r);
+            calendarWeek.setText(0 == weekNumber ? "" : Integer.toString(weekNumber));
+            calendarWeek.setForeground(getTextColor());
 
-        init();
-        registerListeners();
+            for (int c = 0; c < DAYS_PER_WEEK; c++) {
+                int     cell   = r * DAYS_PER_WEEK + c;
+                int     day    = monthLayout.getDay(cell);
+                JButton button = days.get(cell);
+                if (0 == day) {
+                    cellDays[cell] = 0;
+                    button.setVisible(false);
+                    button.setSelected(false);
+                    button.setBackground(null);
+                } else {
+                    cellDays[cell] = day;
+                    button.setText(Integer.toString(day));
+                    applyDecoration(button, day);
+                    button.setSelected(selectedMonth && day == getSelectedDate().getDayOfMonth());
+                    button.setEnabled(isDayEnabled(day));
+                    button.setVisible(true);
+                }
+            }
+        }
+
+        // The focused day gets the focus if the focus was on a day before or nothing inside of the popup has the focus
+        if (GridStyle.BUTTONS == getGridStyle() && !days.isEmpty() && isShowing()) {
+            Component focusOwner = KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner();
+            if (null == focusOwner || days.contains(focusOwner) || !SwingUtilities.isDescendingFrom(focusOwner, this)) {
+                days.get(monthLayout.getCell(getFocusedDate().getDayOfMonth())).requestFocusInWindow();
+            }
+        }
+
+        // Range
+        firstEpochDay = yearMonth.atDay(1).toEpochDay();
+        updateRangeStates(true);
+
+        // Time
+        updateTimeSpinner();
+
+        // Todays date
+        if (isTodaysDateVisible()) {
+            LocalDate today = TodayService.getInstance().getToday(getZoneId());
+            todaysDateLabel.setText(localeResources.getTodaysDateText() + today.format(localeResources.getTodaysDateFormatter()));
+        }
+        endMeasure(event, DatePickerStatistics.Operation.UPDATE_CELLS, start);
+    }
+
+    private void updateTimeSpinner() {
+        timeSpinner.removeChangeListener(timeChangeListener);
+        SpinnerDateModel model = (SpinnerDateModel) timeSpinner.getModel();
+        model.setStart(Date.from((ZonedDateTime.of(getSelectedDate().toLocalDate(), LocalTime.MIN, getZoneId())).toInstant()));
+        model.setEnd(Date.from((ZonedDateTime.of(getSelectedDate().toLocalDate(), LocalTime.MAX, getZoneId())).toInstant()));
+        model.setValue(Date.from(selectedTime.atDate(getSelectedDate().toLocalDate()).atZone(getZoneId()).toInstant()));
+        timeSpinner.addChangeListener(timeChangeListener);
+    }
+
+    /**
+     * Moves the selection from the previously shown to the currently selected date.
+     * Only the cells of these two dates are updated and repainted, the grid is
+     * neither rebuilt nor laid out again.
+     */
+    private void updateSelection() {
+        LocalDate previous = appliedSelection;
+        LocalDate selected = getSelectedDate().toLocalDate();
+        appliedSelection = selected;
+        // The spinner is updated on the next relayout if the display mode changes
+        if (DATE_ONLY != getDisplayMode()) { updateTimeSpinner(); }
+        if (selected.equals(previous) || SelectionMode.SINGLE != getSelectionMode()) { return; }
+        applySelection(previous, false);
+        applySelection(selected, true);
+    }
+
+    private void applySelection(final LocalDate date, final boolean selected) {
+        if (null == date) { return; }
+        if (GridStyle.SCROLLING == getGridStyle()) {
+            if (null != monthList) { monthList.repaintDate(date); }
+            return;
+        }
+        if (!isInCurrentMonth(date)) { return; }
+        int cell = monthLayout.getCell(date.getDayOfMonth());
+        if (GridStyle.PAINTED == getGridStyle()) {
+            if (null != calendarGrid) { calendarGrid.repaintCell(cell); }
+        } else if (!days.isEmpty()) {
+            JButton button = days.get(cell);
+            button.setSelected(selected);
+            // Keep the keyboard focus on the selected day if it was on a day before
+            if (selected && days.contains(KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner())) {
+                button.requestFocusInWindow();
+            }
+        }
+    }
+
+    private boolean isInCurrentMonth(final LocalDate date) {
+        if (null == monthLayout) { return false; }
+        YearMonth yearMonth = monthLayout.getYearMonth();
+        return date.getYear() == yearMonth.getYear() && date.getMonthValue() == yearMonth.getMonthValue();
+    }
+
+    private void applyMetrics() {
+        Font currentMonthFont = metrics.getCurrentMonthFont();
+        previousYearButton.setFont(currentMonthFont);
+        previousMonthButton.setFont(currentMonthFont);
+        currentMonthLabel.setFont(currentMonthFont);
+        nextMonthButton.setFont(currentMonthFont);
+        nextYearButton.setFont(currentMonthFont);
+
+        timeSpinner.setFont(metrics.getSpinnerFont());
 
-        paintComponent(getGraphics());
+        headerNames = metrics.isLongWeekDays() ? localeResources.getWeekDaysLong() : localeResources.getWeekDays();
+        for (int i = 0; i < daysOfWeek.size(); i++) {
+            daysOfWeek.get(i).setFont(metrics.getDaysOfWeekFont());
+            daysOfWeek.get(i).setText(headerNames.get(i));
+        }
+        for (JLabel label : calendarWeeks) {
+            label.setFont(metrics.getCalendarWeekFont());
+        }
+        for (JButton button : days) {
+            button.setFont(metrics.getDayFont());
+        }
+
+        todaysDateLabel.setFont(metrics.getTodaysDateFont());
+    }
+
+    private void reInit() {
+        PopupEvent event = new PopupEvent.ReInit();
+        long       start = beginMeasure(event);
+        layoutPanes();
+        updateCells();
+        revalidate();
+        repaint();
+        endMeasure(event, DatePickerStatistics.Operation.RE_INIT, start);
+    }
+
+    private long beginMeasure(final PopupEvent event) {
+        event.begin();
+        return DatePickerStatistics.start();
+    }
+
+    /**
+     * Records the duration of an operation in the DatePickerStatistics and commits
+     * the flight recorder event if it is enabled and above its threshold
+     */
+    private void endMeasure(final PopupEvent event, final DatePickerStatistics.Operation operation, final long start) {
+        DatePickerStatistics.record(operation, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.popupId       = System.identityHashCode(this);
+            event.displayMode   = displayMode.name();
+            event.locale        = locale.toLanguageTag();
+            event.observerCount = observers.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Marks the popup as dirty and schedules one update on the EDT. All
+     * invalidations that happen before the update runs are coalesced.
+     * @param update SELECTION to move the selection, CELLS to update the content of the cells, LAYOUT to relayout the popup
+     */
+    private void invalidate(final int update) {
+        if (0 == pendingUpdate.getAndAccumulate(update, (pending, requested) -> pending | requested)) {
+            SwingUtilities.invokeLater(this::validateNow);
+        }
+    }
+
+    /**
+     * Runs a pending update right away, must be called on the EDT
+     */
+    void validateNow() {
+        int update = pendingUpdate.getAndSet(0);
+        if (0 == update) { return; }
+        if ((update & LAYOUT) != 0) {
+            isDirty = true;
+            reInit();
+        } else if ((update & CELLS) != 0) {
+            isDirty = true;
+            updateCells();
+            repaint();
+        } else {
+            updateSelection();
+        }
     }
 
     private void registerListeners() {
@@ -498,65 +744,312 @@ public class DatePickerPopup extends JComponent {
         previousMonthButton.addActionListener(controlClickListener);
         nextMonthButton.addActionListener(controlClickListener);
         nextYearButton.addActionListener(controlClickListener);
-        for (JButton button : days) {
-            button.addActionListener(onClickListener);
-        }
     }
 
-    private String[] getWeekDays() {
-        final String[] weekDays;
-        if (DayOfWeek.MONDAY == startOfWeek) {
-            weekDays = new String[] {
-                resourceBundle.getString("mon"),
-                resourceBundle.getString("tue"),
-                resourceBundle.getString("wed"),
-                resourceBundle.getString("thu"),
-                resourceBundle.getString("fri"),
-                resourceBundle.getString("sat"),
-                resourceBundle.getString("sun")
-            };
+    /**
+     * Arrow keys, PageUp/PageDown (with Shift or Ctrl for years) and Home/End move the
+     * focused day. The bindings are active as long as any component inside of the popup
+     * has the focus and the focused component does not consume the key itself. Left, Up
+     * and Home fire PREVIOUS_DAY, Right, Down and End fire NEXT_DAY, also when the focus
+     * moves by a week or to the first or last day of the month. Enter and Space select
+     * the focused day, they are bound by bindSelectKeys() on the day cells only.
+     */
+    private void registerKeyBindings() {
+        bindKey(KeyEvent.VK_LEFT,      0,                          "previousDay",   () -> moveFocus(getFocusedDate().minusDays(1), DatePickerEventType.PREVIOUS_DAY));
+        bindKey(KeyEvent.VK_RIGHT,     0,                          "nextDay",       () -> moveFocus(getFocusedDate().plusDays(1), DatePickerEventType.NEXT_DAY));
+        bindKey(KeyEvent.VK_UP,        0,                          "previousWeek",  () -> moveFocus(getFocusedDate().minusWeeks(1), DatePickerEventType.PREVIOUS_DAY));
+        bindKey(KeyEvent.VK_DOWN,      0,                          "nextWeek",      () -> moveFocus(getFocusedDate().plusWeeks(1), DatePickerEventType.NEXT_DAY));
+        bindKey(KeyEvent.VK_HOME,      0,                          "firstDay",      () -> moveFocus(getFocusedDate().withDayOfMonth(1), DatePickerEventType.PREVIOUS_DAY));
+        bindKey(KeyEvent.VK_END,       0,                          "lastDay",       () -> moveFocus(getFocusedDate().withDayOfMonth(getFocusedDate().lengthOfMonth()), DatePickerEventType.NEXT_DAY));
+        bindKey(KeyEvent.VK_PAGE_UP,   0,                          "previousMonth", () -> moveFocus(getFocusedDate().minusMonths(1), DatePickerEventType.PREVIOUS_MONTH));
+        bindKey(KeyEvent.VK_PAGE_DOWN, 0,                          "nextMonth",     () -> moveFocus(getFocusedDate().plusMonths(1), DatePickerEventType.NEXT_MONTH));
+        bindKey(KeyEvent.VK_PAGE_UP,   InputEvent.SHIFT_DOWN_MASK, "previousYear",  () -> moveFocus(getFocusedDate().minusYears(1), DatePickerEventType.PREVIOUS_YEAR));
+        bindKey(KeyEvent.VK_PAGE_DOWN, InputEvent.SHIFT_DOWN_MASK, "nextYear",      () -> moveFocus(getFocusedDate().plusYears(1), DatePickerEventType.NEXT_YEAR));
+        bindKey(KeyEvent.VK_PAGE_UP,   InputEvent.CTRL_DOWN_MASK,  "previousYear",  () -> moveFocus(getFocusedDate().minusYears(1), DatePickerEventType.PREVIOUS_YEAR));
+        bindKey(KeyEvent.VK_PAGE_DOWN, InputEvent.CTRL_DOWN_MASK,  "nextYear",      () -> moveFocus(getFocusedDate().plusYears(1), DatePickerEventType.NEXT_YEAR));
+    }
+
+    private void bindKey(final int keyCode, final int modifiers, final String name, final Runnable action) {
+        getInputMap(WHEN_ANCESTOR_OF_FOCUSED_COMPONENT).put(KeyStroke.getKeyStroke(keyCode, modifiers), name);
+        getActionMap().put(name, new AbstractAction(name) {
+            @Override public void actionPerformed(final ActionEvent e) { action.run(); }
+        });
+    }
+
+    /**
+     * Binds Enter and Space to the selection of the focused day while the given component
+     * has the focus. They are not bound on the popup itself, otherwise they would also
+     * select a day while the time spinner has the focus.
+     * @param component a day button, the CalendarGrid or the MonthList
+     */
+    private void bindSelectKeys(final JComponent component) {
+        InputMap inputMap = component.getInputMap(WHEN_FOCUSED);
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "selectFocused");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0), "selectFocused");
+        component.getActionMap().put("selectFocused", selectFocusedAction);
+    }
+
+    /**
+     * Returns the day that has the keyboard focus. If it is not part of the current month
+     * the selected date is used if it is in the current month, otherwise the 1st.
+     * @return the day that has the keyboard focus
+     */
+    LocalDate getFocusedDate() {
+        if (null != focusedDate && isInCurrentMonth(focusedDate)) { return focusedDate; }
+        LocalDate selected = getSelectedDate().toLocalDate();
+        if (isInCurrentMonth(selected)) { return selected; }
+        return null == monthLayout ? selected : monthLayout.getYearMonth().atDay(1);
+    }
+
+    /**
+     * Returns the day of month of the day that has the keyboard focus
+     * @return the day of month of the day that has the keyboard focus
+     */
+    int getFocusedDay() { return getFocusedDate().getDayOfMonth(); }
+
+    /**
+     * Moves the keyboard focus to the given date and fires the given event. Within the
+     * current month only the cells of the old and new focused day are repainted, if the
+     * date is in another month only the content of the cells is updated.
+     * @param date the date that gets the focus
+     * @param type NEXT_DAY, PREVIOUS_DAY, NEXT_MONTH, PREVIOUS_MONTH, NEXT_YEAR or PREVIOUS_YEAR
+     */
+    void moveFocus(final LocalDate date, final DatePickerEventType type) {
+        if (!isNavigable(YearMonth.from(date), getDateConstraints())) { return; }
+        LocalDate previous = getFocusedDate();
+        if (date.equals(previous)) { return; }
+        focusedDate = date;
+        if (isInCurrentMonth(date)) {
+            applyFocus(previous, date);
         } else {
-            weekDays = new String[] {
-                resourceBundle.getString("sun"),
-                resourceBundle.getString("mon"),
-                resourceBundle.getString("tue"),
-                resourceBundle.getString("wed"),
-                resourceBundle.getString("thu"),
-                resourceBundle.getString("fri"),
-                resourceBundle.getString("sat")
-            };
-        }
-        return weekDays;
-    }
-
-    private String[] getWeekDaysLong() {
-        final String[] weekDaysLong;
-        if (DayOfWeek.MONDAY == startOfWeek) {
-            weekDaysLong = new String[] {
-                resourceBundle.getString("mon_long"),
-                resourceBundle.getString("tue_long"),
-                resourceBundle.getString("wed_long"),
-                resourceBundle.getString("thu_long"),
-                resourceBundle.getString("fri_long"),
-                resourceBundle.getString("sat_long"),
-                resourceBundle.getString("sun_long")
-            };
+            setCurrentDate(ZonedDateTime.of(date, getCurrentDate().toLocalTime(), getZoneId()));
+            validateNow();
+        }
+        fireDatePickerEvent(new DatePickerEvent(DatePickerPopup.this, type, ZonedDateTime.of(date, selectedTime, getZoneId())));
+    }
+
+    private void applyFocus(final LocalDate previous, final LocalDate date) {
+        switch (getGridStyle()) {
+            case PAINTED:
+                if (null == calendarGrid) { return; }
+                calendarGrid.repaintCell(monthLayout.getCell(previous.getDayOfMonth()));
+                calendarGrid.repaintCell(monthLayout.getCell(date.getDayOfMonth()));
+                break;
+            case SCROLLING:
+                if (null == monthList) { return; }
+                monthList.repaintDate(previous);
+                monthList.repaintDate(date);
+                break;
+            default:
+                if (days.isEmpty()) { return; }
+                days.get(monthLayout.getCell(date.getDayOfMonth())).requestFocusInWindow();
+                break;
+        }
+    }
+
+    /**
+     * Fires a DATE_SELECTED event for the adjusted time once the user stopped
+     * adjusting the time spinner or the spinner lost the focus
+     */
+    private void commitTime() {
+        timeCommitTimer.stop();
+        if (!timeAdjusting) { return; }
+        timeAdjusting = false;
+        ZonedDateTime selected = ZonedDateTime.of(getSelectedDate().toLocalDate(), selectedTime, getZoneId());
+        fireDatePickerEvent(new DatePickerEvent(DatePickerPopup.this, DatePickerEventType.DATE_SELECTED, selected));
+    }
+
+    private void applyDecoration(final JButton button, final int day) {
+        DayDecoration decoration = getDecoration(day);
+        button.setForeground(null == decoration || null == decoration.getTextColor() ? getTextColor() : decoration.getTextColor());
+        button.setIcon(null == decoration || null == decoration.getMarkerColor() ? null : MarkerIcon.of(decoration.getMarkerColor()));
+        button.setToolTipText(null == decoration ? null : decoration.getTooltip());
+    }
+
+    /**
+     * Called on the EDT when the decorations of a month are loaded, only the cells
+     * whose decoration changed will be repainted
+     * @param yearMonth the month the decorations were loaded for
+     */
+    private void onDecorationsLoaded(final YearMonth yearMonth) {
+        DayDecorationLoader loader = decorationLoader;
+        if (null == loader || null == monthLayout || !yearMonth.equals(monthLayout.getYearMonth())) { return; }
+        DayDecoration[] loaded = loader.get(yearMonth);
+        if (null == loaded || loaded == decorations) { return; }
+
+        DayDecoration[] previous = decorations;
+        decorations = loaded;
+        for (int day = 1; day <= monthLayout.getLengthOfMonth(); day++) {
+            if (Objects.equals(null == previous ? null : previous[day], loaded[day])) { continue; }
+            int cell = monthLayout.getCell(day);
+            if (GridStyle.PAINTED == getGridStyle()) {
+                if (null != calendarGrid) { calendarGrid.repaintCell(cell); }
+            } else if (GridStyle.SCROLLING == getGridStyle()) {
+                if (null != monthList) { monthList.repaintDate(yearMonth.atDay(day)); }
+            } else if (!days.isEmpty()) {
+                applyDecoration(days.get(cell), day);
+            }
+        }
+    }
+
+    /**
+     * Updates the in-range state of the days of the current month
+     * @param all true to apply the state to all cells, false to only repaint the cells whose state changed
+     */
+    private void updateRangeStates(final boolean all) {
+        // The month list shows more than the current month, so its visible area is repainted
+        if (!all && GridStyle.SCROLLING == getGridStyle() && null != monthList) { monthList.repaint(); }
+        int lengthOfMonth = monthLayout.getLengthOfMonth();
+        for (int day = 1; day <= lengthOfMonth; day++) {
+            int state = computeRangeState(day);
+            if (!all && state == rangeStates[day]) { continue; }
+            rangeStates[day] = state;
+            int cell = monthLayout.getCell(day);
+            if (GridStyle.PAINTED == getGridStyle()) {
+                if (!all && null != calendarGrid) { calendarGrid.repaintCell(cell); }
+            } else if (!days.isEmpty()) {
+                applyRangeState(days.get(cell), state);
+            }
+        }
+    }
+
+    private int computeRangeState(final int day) { return computeRangeState(firstEpochDay + day - 1); }
+
+    /**
+     * Returns the range state of the given date
+     * @param date the date as epoch day
+     * @return RANGE_NONE, RANGE_INSIDE or RANGE_END
+     */
+    int computeRangeState(final long date) {
+        LocalDate start = rangeStart;
+        LocalDate end   = rangeEnd;
+        if (SelectionMode.RANGE != getSelectionMode() || null == start) { return RANGE_NONE; }
+        long from = start.toEpochDay();
+        long to   = null != end ? end.toEpochDay() : NO_HOVER == hoverEpochDay ? from : hoverEpochDay;
+        if (date == from || (null != end && date == to)) { return RANGE_END; }
+        return date >= Math.min(from, to) && date <= Math.max(from, to) ? RANGE_INSIDE : RANGE_NONE;
+    }
+
+    private void applyRangeState(final JButton button, final int state) {
+        if (SelectionMode.RANGE == getSelectionMode()) { button.setSelected(RANGE_END == state); }
+        button.setBackground(RANGE_INSIDE == state ? MonthPainter.getRangeColor() : null);
+    }
+
+    private static boolean isNavigable(final YearMonth yearMonth, final DateConstraints constraints) {
+        if (null != constraints.getMinDate() && yearMonth.isBefore(YearMonth.from(constraints.getMinDate()))) { return false; }
+        return null == constraints.getMaxDate() || !yearMonth.isAfter(YearMonth.from(constraints.getMaxDate()));
+    }
+
+    /**
+     * Returns true if the given day of the current month can be selected
+     * @param day day of the current month
+     * @return true if the given day of the current month can be selected
+     */
+    boolean isDayEnabled(final int day) { return 0 == (disabledDays & (1 << (day - 1))); }
+
+    /**
+     * Called when the mouse enters or leaves a day, previews the range while its end is not selected yet
+     * @param day the day of the current month under the mouse or 0 if the mouse is not over a day
+     */
+    void hoverDay(final int day) {
+        hover(0 == day ? NO_HOVER : firstEpochDay + day - 1);
+    }
+
+    /**
+     * Called when the mouse moves over the dates of the month list
+     * @param date the date under the mouse or null if the mouse is not over a date
+     */
+    void hoverDate(final LocalDate date) {
+        hover(null == date ? NO_HOVER : date.toEpochDay());
+    }
+
+    private void hover(final long epochDay) {
+        if (epochDay == hoverEpochDay) { return; }
+        hoverEpochDay = epochDay;
+        if (SelectionMode.RANGE == getSelectionMode() && null != rangeStart && null == rangeEnd) {
+            updateRangeStates(false);
+        }
+    }
+
+    int getRangeState(final int day) { return rangeStates[day]; }
+
+    void selectDay(final int day) {
+        selectDate(LocalDate.of(getCurrentDate().getYear(), getCurrentDate().getMonthValue(), day));
+    }
+
+    void selectDate(final LocalDate date) {
+        if (!getDateConstraints().isAllowed(date)) { return; }
+        focusedDate = date;
+        if (SelectionMode.RANGE == getSelectionMode()) {
+            selectRange(date);
+            return;
+        }
+        ZonedDateTime selected = ZonedDateTime.of(date, selectedTime, zoneId);
+        setSelectedDate(selected);
+        fireDatePickerEvent(new DatePickerEvent(DatePickerPopup.this, DatePickerEventType.DATE_SELECTED, selected));
+    }
+
+    private void selectRange(final LocalDate date) {
+        if (null == rangeStart || null != rangeEnd) {
+            rangeStart = date;
+            rangeEnd   = null;
+            updateRangeStates(false);
+            fireDatePickerEvent(new DatePickerEvent(DatePickerPopup.this, DatePickerEventType.RANGE_STARTED, ZonedDateTime.of(date, selectedTime, zoneId)));
         } else {
-            weekDaysLong = new String[] {
-                resourceBundle.getString("sun_long"),
-                resourceBundle.getString("mon_long"),
-                resourceBundle.getString("tue_long"),
-                resourceBundle.getString("wed_long"),
-                resourceBundle.getString("thu_long"),
-                resourceBundle.getString("fri_long"),
-                resourceBundle.getString("sat_long")
-            };
+            LocalDate start = date.isBefore(rangeStart) ? date : rangeStart;
+            LocalDate end   = date.isBefore(rangeStart) ? rangeStart : date;
+            rangeStart = start;
+            rangeEnd   = end;
+            updateRangeStates(false);
+            fireDatePickerEvent(new DatePickerEvent(DatePickerPopup.this, DatePickerEventType.RANGE_SELECTED, ZonedDateTime.of(start, selectedTime, zoneId), ZonedDateTime.of(end, selectedTime, zoneId)));
         }
-        return weekDaysLong;
+    }
+
+    MonthLayout getMonthLayout() { return monthLayout; }
+
+    /**
+     * Returns the decoration of the given day of the current month or null
+     * @param day day of the current month
+     * @return the decoration of the given day of the current month or null
+     */
+    DayDecoration getDecoration(final int day) {
+        DayDecoration[] current = decorations;
+        return null == current || day >= current.length ? null : current[day];
+    }
+
+    List<String> getHeaderNames() { return headerNames; }
+
+    Font getDaysOfWeekFont() { return metrics.getDaysOfWeekFont(); }
+
+    Font getCalendarWeekFont() { return metrics.getCalendarWeekFont(); }
+
+    Font getDayFont() { return metrics.getDayFont(); }
+
+    Font getCurrentMonthFont() { return metrics.getCurrentMonthFont(); }
+
+    LocaleResources getLocaleResources() { return localeResources; }
+
+
+    /**
+     * Called by the TodayService on its own thread after midnight in the zone of this popup
+     * @param today the new date
+     */
+    private void onTodayChanged(final LocalDate today) {
+        invalidate(CELLS);
     }
 
 
     // ******************** Public Methods ************************************
+    @Override public void addNotify() {
+        super.addNotify();
+        TodayService.getInstance().register(this, getZoneId(), DatePickerPopup::onTodayChanged);
+    }
+
+    @Override public void removeNotify() {
+        TodayService.getInstance().unregister(this);
+        super.removeNotify();
+    }
+
     @Override public Dimension getMinimumSize() {
         return new Dimension(MIN_WIDTH, MIN_HEIGHT);
     }
@@ -572,8 +1065,7 @@ public class DatePickerPopup extends JComponent {
     }
     public void setSelectedDate(final ZonedDateTime selectedDate) {
         this.selectedDate = selectedDate;
-        isDirty = true;
-        reInit();
+        invalidate(SELECTION);
     }
 
     public ZonedDateTime getCurrentDate() {
@@ -581,28 +1073,106 @@ public class DatePickerPopup extends JComponent {
     }
     public void setCurrentDate(final ZonedDateTime currentDate) {
         this.currentDate = currentDate;
-        isDirty = true;
-        reInit();
+        invalidate(CELLS);
+    }
+
+    public DateConstraints getDateConstraints() {
+        return dateConstraints;
+    }
+    /**
+     * Defines which dates can be selected, use DateConstraints.NONE to allow all dates
+     * @param dateConstraints the rules that decide which dates can be selected
+     */
+    public void setDateConstraints(final DateConstraints dateConstraints) {
+        this.dateConstraints = null == dateConstraints ? DateConstraints.NONE : dateConstraints;
+        invalidate(CELLS);
+    }
+
+    /**
+     * Returns an immutable snapshot of the locale, time zone, current month,
+     * selected date and date constraints of this popup
+     * @return an immutable snapshot of the calendar state of this popup
+     */
+    public CalendarModel getCalendarModel() {
+        return new CalendarModel(locale, zoneId, YearMonth.from(getCurrentDate()), getSelectedDate().toLocalDate(), dateConstraints);
+    }
+    /**
+     * Applies the locale, time zone, month, selected date and date constraints of the
+     * given model. The same model can be applied to several popups.
+     * @param model the calendar model to apply
+     */
+    public void setCalendarModel(final CalendarModel model) {
+        ZonedDateTime selected = getSelectedDate();
+        if (!model.getLocale().equals(locale)) { setLocale(model.getLocale()); }
+        if (!model.getZoneId().equals(zoneId)) { setZoneId(model.getZoneId()); }
+        setDateConstraints(model.getDateConstraints());
+        if (null != model.getSelectedDate()) {
+            this.selectedDate = ZonedDateTime.of(model.getSelectedDate(), selected.toLocalTime(), zoneId);
+        }
+        this.currentDate = ZonedDateTime.of(model.getYearMonth().atDay(1), selected.toLocalTime(), zoneId);
+        invalidate(CELLS);
+    }
+
+    public SelectionMode getSelectionMode() {
+        return selectionMode;
+    }
+    public void setSelectionMode(final SelectionMode selectionMode) {
+        this.selectionMode = selectionMode;
+        this.rangeStart    = null;
+        this.rangeEnd      = null;
+        invalidate(CELLS);
+    }
+
+    public LocalDate getRangeStart() {
+        return rangeStart;
+    }
+
+    public LocalDate getRangeEnd() {
+        return rangeEnd;
+    }
+
+    /**
+     * Selects the given range in SelectionMode.RANGE, start and end will be swapped if needed
+     * @param start first day of the range or null to clear the range
+     * @param end   last day of the range or null if only the start is selected
+     */
+    public void setSelectedRange(final LocalDate start, final LocalDate end) {
+        boolean swap = null != start && null != end && end.isBefore(start);
+        this.rangeStart = null == start ? null : swap ? end : start;
+        this.rangeEnd   = null == start ? null : swap ? start : end;
+        invalidate(CELLS);
+    }
+
+    public DayDecorationProvider getDayDecorationProvider() {
+        DayDecorationLoader loader = decorationLoader;
+        return null == loader ? null : loader.getProvider();
+    }
+    public void setDayDecorationProvider(final DayDecorationProvider provider) {
+        setDayDecorationProvider(provider, ForkJoinPool.commonPool());
+    }
+    /**
+     * Sets the provider of the day decorations. The provider will be called on the
+     * given executor and never on the EDT.
+     * @param provider the provider of the day decorations or null to remove all decorations
+     * @param executor the executor the provider will be called on
+     */
+    public void setDayDecorationProvider(final DayDecorationProvider provider, final Executor executor) {
+        this.decorationLoader = null == provider ? null : new DayDecorationLoader(provider, Objects.requireNonNull(executor), this::onDecorationsLoaded);
+        invalidate(CELLS);
     }
 
     public Locale getLocale() {
         return this.locale;
     }
     public void setLocale(final Locale locale) {
-        this.locale              = locale;
-        this.weekFields          = WeekFields.of(this.locale);
-        this.startOfWeek         = weekFields.getFirstDayOfWeek();
-        this.resourceBundle      = ResourceBundle.getBundle(RESOURCE_BUNDLE_NAME, this.locale);
-        this.dateFormatter       = DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT).withLocale(locale);
-        this.timeFormatter       = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT).withLocale(locale);
-
-        SimpleDateFormat datePattern = (SimpleDateFormat) DateFormat.getDateInstance(DateFormat.DEFAULT, locale);
-        this.dateFormat = datePattern.toLocalizedPattern();
-        SimpleDateFormat timePattern = (SimpleDateFormat) DateFormat.getTimeInstance(DateFormat.DEFAULT, locale);
-        this.timeFormat = timePattern.toLocalizedPattern();
-
-        this.todaysDateFormatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.FULL).withLocale(locale);
-        reInit();
+        this.locale          = locale;
+        this.localeResources = LocaleResources.of(locale);
+        this.dateFormatter   = localeResources.getDateFormatter();
+        this.dateParser      = localeResources.getDateParser();
+        this.timeFormatter   = localeResources.getTimeFormatter();
+        this.dateFormat      = localeResources.getDateFormat();
+        this.timeFormat      = localeResources.getTimeFormat();
+        invalidate(LAYOUT);
     }
 
     public ZoneId getZoneId() {
@@ -610,7 +1180,8 @@ public class DatePickerPopup extends JComponent {
     }
     public void setZoneId(final ZoneId zoneId) {
         this.zoneId = zoneId;
-        reInit();
+        if (isDisplayable()) { TodayService.getInstance().register(this, zoneId, DatePickerPopup::onTodayChanged); }
+        invalidate(CELLS);
     }
 
     public boolean isCalendarWeekVisible() {
@@ -618,7 +1189,7 @@ public class DatePickerPopup extends JComponent {
     }
     public void setCalendarWeekVisible(final boolean calendarWeekVisible) {
         this.calendarWeekVisible = calendarWeekVisible;
-        reInit();
+        invalidate(LAYOUT);
     }
 
     public boolean isTodaysDateVisible() {
@@ -626,7 +1197,7 @@ public class DatePickerPopup extends JComponent {
     }
     public void setTodaysDateVisible(final boolean todaysDateVisible) {
         this.todaysDateVisible = todaysDateVisible;
-        reInit();
+        invalidate(LAYOUT);
     }
 
     public DisplayMode getDisplayMode() {
@@ -634,7 +1205,15 @@ public class DatePickerPopup extends JComponent {
     }
     public void setDisplayMode(final DisplayMode displayMode) {
         this.displayMode = displayMode;
-        reInit();
+        invalidate(LAYOUT);
+    }
+
+    public GridStyle getGridStyle() {
+        return gridStyle;
+    }
+    public void setGridStyle(final GridStyle gridStyle) {
+        this.gridStyle = gridStyle;
+        invalidate(LAYOUT);
     }
 
     public Color getTextColor() {
@@ -642,7 +1221,7 @@ public class DatePickerPopup extends JComponent {
     }
     public void setTextColor(final Color textColor) {
         this.textColor = textColor;
-        reInit();
+        invalidate(CELLS);
     }
 
     public Color getWeekendColor() {
@@ -650,7 +1229,7 @@ public class DatePickerPopup extends JComponent {
     }
     public void setWeekendColor(final Color weekendColor) {
         this.weekendColor = weekendColor;
-        reInit();
+        invalidate(CELLS);
     }
 
     public String getTimeFormat() {
@@ -659,7 +1238,15 @@ public class DatePickerPopup extends JComponent {
     public void setTimeFormat(final String timeFormat) {
         this.timeFormat    = timeFormat;
         this.timeFormatter = DateTimeFormatter.ofPattern(timeFormat);
-        paintComponent(getGraphics());
+        invalidate(LAYOUT);
+    }
+
+    /**
+     * Returns the parser for dates in the format of the date formatter
+     * @return the parser for dates in the format of the date formatter
+     */
+    public DateParser getDateParser() {
+        return dateParser;
     }
 
     public String getDateFormat() {
@@ -668,7 +1255,8 @@ public class DatePickerPopup extends JComponent {
     public void setDateFormat(final String dateFormat) {
         this.dateFormat    = dateFormat;
         this.dateFormatter = DateTimeFormatter.ofPattern(dateFormat);
-        paintComponent(getGraphics());
+        this.dateParser    = new DateParser(dateFormatter);
+        invalidate(CELLS);
     }
 
     public void setOnDatePickerEvent(final DatePickerEventObserver observer) {
@@ -685,77 +1273,23 @@ public class DatePickerPopup extends JComponent {
     }
 
     public void fireDatePickerEvent(final DatePickerEvent event) {
+        PopupEvent.Dispatch dispatch = new PopupEvent.Dispatch();
+        long                start    = beginMeasure(dispatch);
+        dispatch.eventType = event.getType().name();
         observers.forEach(observer -> observer.onDatePickerEvent(event));
+        endMeasure(dispatch, DatePickerStatistics.Operation.DISPATCH, start);
     }
 
     @Override public void paintComponent(Graphics g) {
+        PopupEvent event = new PopupEvent.Paint();
+        long       start = beginMeasure(event);
         super.paintComponent(g);
 
         if (getWidth() != oldWidth || getHeight() != oldHeight || isDirty) {
-            final int minHeight;
-            final int cellWidth;
-            LookAndFeel laf = UIManager.getLookAndFeel();
-            if (laf instanceof MetalLookAndFeel) {
-                minHeight = getHeight() / 20;
-                cellWidth = getWidth() / 30;
-            } else if (laf instanceof NimbusLookAndFeel) {
-                minHeight = getHeight() / 22;
-                cellWidth = getWidth() / 32;
-            } else {
-                minHeight = getHeight() / 20;
-                cellWidth = getWidth() / 30;
-            }
-            final int fontSize  = Helper.clamp(4, minHeight, cellWidth);
-
-            this.currentMonthFont = new Font("SansSerif", Font.BOLD, Helper.clamp(5, 16, fontSize + 2));
-            this.daysOfWeekFont   = new Font("SansSerif", Font.PLAIN, fontSize);
-            this.calendarWeekFont = new Font("SansSerif", Font.PLAIN, fontSize - 2);
-            this.dayFont          = new Font("SansSerif", Font.PLAIN, fontSize);
-            this.spinnerFont      = new Font("SansSerif", Font.PLAIN, fontSize + 2);
-
-            this.previousYearButton.setFont(currentMonthFont);
-            this.previousMonthButton.setFont(currentMonthFont);
-            this.currentMonthLabel.setFont(currentMonthFont);
-            this.nextMonthButton.setFont(currentMonthFont);
-            this.nextYearButton.setFont(currentMonthFont);
-
-            if (null != this.timeSpinner) {
-                this.timeSpinner.setFont(spinnerFont);
-            }
-
-            for (JLabel label : daysOfWeek) {
-                label.setFont(daysOfWeekFont);
-            }
-            for (JLabel label : calendarWeeks) {
-                label.setFont(calendarWeekFont);
-            }
-            for (JButton button : days) {
-                button.setFont(dayFont);
-                button.setMargin(new Insets(0, 0, 0, 0));
-                button.setSelected(false);
-                if (Integer.parseInt(button.getText()) == getSelectedDate().getDayOfMonth()) {
-                    if (DTF.format(getSelectedDate()).equals(currentMonthLabel.getText())) {
-                        button.setSelected(true);
-                        button.requestFocus();
-                    }
-                }
-            }
-
-            if (cellWidth > minHeight * 0.2) {
-                for (int i = 0; i < weekDaysLong.length; i++) {
-                    daysOfWeek.get(i).setFont(daysOfWeekFont);
-                    daysOfWeek.get(i).setText(weekDaysLong[i]);
-                }
-            } else {
-                for (int i = 0; i < weekDays.length; i++) {
-                    daysOfWeek.get(i).setFont(daysOfWeekFont);
-                    daysOfWeek.get(i).setText(weekDays[i]);
-                }
-            }
-
-            if (isTodaysDateVisible()) {
-                todaysDateFont = new Font("SansSerif", Font.BOLD, fontSize);
-                todaysDateLabel.setFont(todaysDateFont);
+            PopupMetrics newMetrics = PopupMetrics.of(UIManager.getLookAndFeel(), getWidth(), getHeight());
+            if (newMetrics != metrics) {
+                metrics = newMetrics;
+                applyMetrics();
             }
 
             isDirty = false;
@@ -763,5 +1297,37 @@ public class DatePickerPopup extends JComponent {
 
         oldWidth  = getWidth();
         oldHeight = getHeight();
+        endMeasure(event, DatePickerStatistics.Operation.PAINT, start);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * Small dot that marks a decorated day button, one instance is shared per color
+     */
+    private static final class MarkerIcon implements Icon {
+        private static final int                    SIZE  = 5;
+        private static final Map<Color, MarkerIcon> ICONS = new ConcurrentHashMap<>();
+        private        final Color                  color;
+
+
+        private MarkerIcon(final Color color) {
+            this.color = color;
+        }
+
+
+        static MarkerIcon of(final Color color) { return ICONS.computeIfAbsent(color, MarkerIcon::new); }
+
+        @Override public void paintIcon(final Component c, final Graphics g, final int x, final int y) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setColor(color);
+            g2.fillOval(x, y, SIZE, SIZE);
+            g2.dispose();
+        }
+
+        @Override public int getIconWidth() { return SIZE; }
+
+        @Override public int getIconHeight() { return SIZE; }
     }
 }
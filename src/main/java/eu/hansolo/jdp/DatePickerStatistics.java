@@ -0,0 +1,168 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Aggregates counts and latency histograms of all DatePickerPopups in the process.
+ * Recording is off by default and is switched on by registering the MBean, either
+ * with registerMBean() or with the system property -Deu.hansolo.jdp.jmx=true.
+ */
+public final class DatePickerStatistics implements DatePickerStatisticsMXBean {
+    public  static final String               OBJECT_NAME    = "eu.hansolo.jdp:type=DatePickerStatistics";
+    private static final long[]               BOUNDS_MICROS  = { 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000 };
+    private static final DatePickerStatistics INSTANCE       = new DatePickerStatistics();
+    private static volatile boolean           enabled;
+    private        final Timing[]             timings;
+
+    enum Operation { INIT, RE_INIT, UPDATE_CELLS, PAINT, DISPATCH }
+
+    static {
+        if (Boolean.getBoolean("eu.hansolo.jdp.jmx")) { registerMBean(); }
+    }
+
+
+    // ******************** Constructors **************************************
+    private DatePickerStatistics() {
+        timings = new Timing[Operation.values().length];
+        for (int i = 0; i < timings.length; i++) { timings[i] = new Timing(); }
+    }
+
+
+    // ******************** Methods *******************************************
+    public static DatePickerStatistics getInstance() { return INSTANCE; }
+
+    public static boolean isEnabled() { return enabled; }
+    public static void setEnabled(final boolean enabled) { DatePickerStatistics.enabled = enabled; }
+
+    /**
+     * Registers the MBean under OBJECT_NAME at the platform MBean server and enables recording
+     */
+    public static synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName  name   = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) { server.registerMBean(INSTANCE, name); }
+            enabled = true;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Unregisters the MBean from the platform MBean server and disables recording
+     */
+    public static synchronized void unregisterMBean() {
+        enabled = false;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName  name   = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) { server.unregisterMBean(name); }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Returns the start time of a measurement or 0 if recording is disabled
+     * @return the start time of a measurement or 0 if recording is disabled
+     */
+    static long start() { return enabled ? System.nanoTime() : 0; }
+
+    static void record(final Operation operation, final long start) {
+        if (0 == start) { return; }
+        INSTANCE.timings[operation.ordinal()].add(System.nanoTime() - start);
+    }
+
+    @Override public long[] getHistogramBoundsMicros() { return BOUNDS_MICROS.clone(); }
+
+    @Override public long getInitCount() { return timings[Operation.INIT.ordinal()].count.sum(); }
+    @Override public long getInitTotalMicros() { return timings[Operation.INIT.ordinal()].getTotalMicros(); }
+    @Override public long getInitMaxMicros() { return timings[Operation.INIT.ordinal()].getMaxMicros(); }
+    @Override public long[] getInitHistogram() { return timings[Operation.INIT.ordinal()].getHistogram(); }
+
+    @Override public long getReInitCount() { return timings[Operation.RE_INIT.ordinal()].count.sum(); }
+    @Override public long getReInitTotalMicros() { return timings[Operation.RE_INIT.ordinal()].getTotalMicros(); }
+    @Override public long getReInitMaxMicros() { return timings[Operation.RE_INIT.ordinal()].getMaxMicros(); }
+    @Override public long[] getReInitHistogram() { return timings[Operation.RE_INIT.ordinal()].getHistogram(); }
+
+    @Override public long getUpdateCellsCount() { return timings[Operation.UPDATE_CELLS.ordinal()].count.sum(); }
+    @Override public long getUpdateCellsTotalMicros() { return timings[Operation.UPDATE_CELLS.ordinal()].getTotalMicros(); }
+    @Override public long getUpdateCellsMaxMicros() { return timings[Operation.UPDATE_CELLS.ordinal()].getMaxMicros(); }
+    @Override public long[] getUpdateCellsHistogram() { return timings[Operation.UPDATE_CELLS.ordinal()].getHistogram(); }
+
+    @Override public long getPaintCount() { return timings[Operation.PAINT.ordinal()].count.sum(); }
+    @Override public long getPaintTotalMicros() { return timings[Operation.PAINT.ordinal()].getTotalMicros(); }
+    @Override public long getPaintMaxMicros() { return timings[Operation.PAINT.ordinal()].getMaxMicros(); }
+    @Override public long[] getPaintHistogram() { return timings[Operation.PAINT.ordinal()].getHistogram(); }
+
+    @Override public long getDispatchCount() { return timings[Operation.DISPATCH.ordinal()].count.sum(); }
+    @Override public long getDispatchTotalMicros() { return timings[Operation.DISPATCH.ordinal()].getTotalMicros(); }
+    @Override public long getDispatchMaxMicros() { return timings[Operation.DISPATCH.ordinal()].getMaxMicros(); }
+    @Override public long[] getDispatchHistogram() { return timings[Operation.DISPATCH.ordinal()].getHistogram(); }
+
+    @Override public void reset() {
+        for (Timing timing : timings) { timing.reset(); }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Timing {
+        private final LongAdder       count   = new LongAdder();
+        private final LongAdder       total   = new LongAdder();
+        private final AtomicLong      max     = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+
+
+        void add(final long nanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            int  bucket = 0;
+            while (bucket < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[bucket]) { bucket++; }
+            count.increment();
+            total.add(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+            buckets.incrementAndGet(bucket);
+        }
+
+        long getTotalMicros() { return TimeUnit.NANOSECONDS.toMicros(total.sum()); }
+
+        long getMaxMicros() { return TimeUnit.NANOSECONDS.toMicros(max.get()); }
+
+        long[] getHistogram() {
+            long[] histogram = new long[buckets.length()];
+            for (int i = 0; i < histogram.length; i++) { histogram[i] = buckets.get(i); }
+            return histogram;
+        }
+
+        void reset() {
+            count.reset();
+            total.reset();
+            max.set(0);
+            for (int i = 0; i < buckets.length(); i++) { buckets.set(i, 0); }
+        }
+    }
+}
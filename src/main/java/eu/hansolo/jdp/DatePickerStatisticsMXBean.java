@@ -0,0 +1,54 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+/**
+ * Management interface of the DatePickerStatistics. All times are in microseconds,
+ * histograms contain one count per bucket of getHistogramBoundsMicros() plus one
+ * last bucket for everything above the highest bound.
+ */
+public interface DatePickerStatisticsMXBean {
+    long[] getHistogramBoundsMicros();
+
+    long getInitCount();
+    long getInitTotalMicros();
+    long getInitMaxMicros();
+    long[] getInitHistogram();
+
+    long getReInitCount();
+    long getReInitTotalMicros();
+    long getReInitMaxMicros();
+    long[] getReInitHistogram();
+
+    long getUpdateCellsCount();
+    long getUpdateCellsTotalMicros();
+    long getUpdateCellsMaxMicros();
+    long[] getUpdateCellsHistogram();
+
+    long getPaintCount();
+    long getPaintTotalMicros();
+    long getPaintMaxMicros();
+    long[] getPaintHistogram();
+
+    long getDispatchCount();
+    long getDispatchTotalMicros();
+    long getDispatchMaxMicros();
+    long[] getDispatchHistogram();
+
+    void reset();
+}
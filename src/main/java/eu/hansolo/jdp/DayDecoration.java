@@ -0,0 +1,70 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import java.awt.*;
+import java.util.Objects;
+
+
+/**
+ * Immutable styling of a single day in the DatePickerPopup.
+ * Each property is optional and may be null.
+ */
+public final class DayDecoration {
+    private final Color  markerColor;
+    private final Color  textColor;
+    private final String tooltip;
+
+
+    // ******************** Constructors **************************************
+    public DayDecoration(final Color markerColor) {
+        this(markerColor, null, null);
+    }
+    public DayDecoration(final Color markerColor, final String tooltip) {
+        this(markerColor, null, tooltip);
+    }
+    /**
+     * @param markerColor color of the dot that is drawn below the day or null for no dot
+     * @param textColor   color of the day text or null to use the text color of the popup
+     * @param tooltip     tooltip of the day or null for no tooltip
+     */
+    public DayDecoration(final Color markerColor, final Color textColor, final String tooltip) {
+        this.markerColor = markerColor;
+        this.textColor   = textColor;
+        this.tooltip     = tooltip;
+    }
+
+
+    // ******************** Methods *******************************************
+    public Color getMarkerColor() { return markerColor; }
+
+    public Color getTextColor() { return textColor; }
+
+    public String getTooltip() { return tooltip; }
+
+    @Override public boolean equals(final Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof DayDecoration)) { return false; }
+        DayDecoration that = (DayDecoration) o;
+        return Objects.equals(markerColor, that.markerColor) && Objects.equals(textColor, that.textColor) && Objects.equals(tooltip, that.tooltip);
+    }
+
+    @Override public int hashCode() {
+        return Objects.hash(markerColor, textColor, tooltip);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import javax.swing.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+
+/**
+ * Loads the decorations of a DayDecorationProvider on an executor and keeps the
+ * most recently used months in a bounded cache. Once the decorations of a month
+ * are available the given callback is called on the EDT. If the provider throws,
+ * the month is cached without decorations, so it is not requested again.
+ */
+final class DayDecorationLoader {
+    private static final int                              CACHE_SIZE = 36;
+    private        final DayDecorationProvider            provider;
+    private        final Executor                         executor;
+    private        final Consumer<YearMonth>              onLoaded;
+    private        final Map<YearMonth, DayDecoration[]>  cache;
+    private        final Set<YearMonth>                   loading;
+
+
+    // ******************** Constructors **************************************
+    DayDecorationLoader(final DayDecorationProvider provider, final Executor executor, final Consumer<YearMonth> onLoaded) {
+        this.provider = provider;
+        this.executor = executor;
+        this.onLoaded = onLoaded;
+        this.cache    = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(final Map.Entry<YearMonth, DayDecoration[]> eldest) { return size() > CACHE_SIZE; }
+        };
+        this.loading  = ConcurrentHashMap.newKeySet();
+    }
+
+
+    // ******************** Methods *******************************************
+    DayDecorationProvider getProvider() { return provider; }
+
+    /**
+     * Returns the decorations of the given month indexed by the day of month or null
+     * if they are not loaded yet, in this case loading is started in the background.
+     * @param yearMonth the month to get the decorations for
+     * @return the decorations of the given month indexed by the day of month or null
+     */
+    DayDecoration[] get(final YearMonth yearMonth) {
+        DayDecoration[] decorations;
+        synchronized (cache) {
+            decorations = cache.get(yearMonth);
+        }
+        if (null == decorations) { load(yearMonth); }
+        return decorations;
+    }
+
+    /**
+     * Starts loading the decorations of the given month if they are not cached yet
+     * @param yearMonth the month to load the decorations for
+     */
+    void prefetch(final YearMonth yearMonth) {
+        synchronized (cache) {
+            if (cache.containsKey(yearMonth)) { return; }
+        }
+        load(yearMonth);
+    }
+
+    private void load(final YearMonth yearMonth) {
+        if (!loading.add(yearMonth)) { return; }
+        executor.execute(() -> {
+            try {
+                DayDecoration[]               decorations = new DayDecoration[yearMonth.lengthOfMonth() + 1];
+                Map<LocalDate, DayDecoration> loaded;
+                try {
+                    loaded = provider.getDecorations(yearMonth);
+                } catch (RuntimeException e) {
+                    loaded = null;
+                }
+                if (null != loaded) {
+                    loaded.forEach((date, decoration) -> {
+                        if (YearMonth.from(date).equals(yearMonth)) { decorations[date.getDayOfMonth()] = decoration; }
+                    });
+                }
+                synchronized (cache) {
+                    cache.put(yearMonth, decorations);
+                }
+                SwingUtilities.invokeLater(() -> onLoaded.accept(yearMonth));
+            } finally {
+                loading.remove(yearMonth);
+            }
+        });
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+
+/**
+ * Supplies the decorations of the days of a month. The provider is called off the EDT,
+ * so it may block while loading the data, and the result is cached by the popup.
+ */
+@FunctionalInterface
+public interface DayDecorationProvider {
+    /**
+     * Returns the decorations of the given month, days without decoration can be omitted
+     * @param yearMonth the month to load the decorations for
+     * @return the decorations of the given month keyed by date
+     */
+    Map<LocalDate, DayDecoration> getDecorations(final YearMonth yearMonth);
+}
@@ -0,0 +1,255 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import eu.hansolo.jdp.core.DateConstraints;
+import eu.hansolo.jdp.core.LocaleResources;
+import eu.hansolo.jdp.core.MonthLayout;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.FocusEvent;
+import java.awt.event.FocusListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static eu.hansolo.jdp.DatePickerPopup.RANGE_END;
+import static eu.hansolo.jdp.DatePickerPopup.RANGE_INSIDE;
+import static eu.hansolo.jdp.MonthPainter.DISABLED;
+import static eu.hansolo.jdp.MonthPainter.FOCUSED;
+import static eu.hansolo.jdp.MonthPainter.IN_RANGE;
+import static eu.hansolo.jdp.MonthPainter.NO_OF_ROWS;
+import static eu.hansolo.jdp.MonthPainter.SELECTED;
+
+
+/**
+ * Vertically stacked list of months for the GridStyle.SCROLLING of the DatePickerPopup.
+ * The list is virtual, it covers 100 years in each direction but only the months that
+ * intersect the visible area are painted and their MonthLayouts are taken from the
+ * shared cache, so scrolling through years does not create any components.
+ */
+class MonthList extends JComponent implements Scrollable, MonthPainter.Days {
+    private static final int             YEARS            = 100;
+    private static final int             NO_OF_MONTHS     = 2 * YEARS * 12 + 1;
+    private static final int             PREFERRED_WIDTH  = 40;
+    private static final int             ROW_HEIGHT       = 20;
+    private static final int             MONTH_HEIGHT     = (NO_OF_ROWS + 1) * ROW_HEIGHT;
+    private        final DatePickerPopup popup;
+    private        final MonthPainter    painter;
+    private              YearMonth       origin;
+    private              YearMonth       pendingMonth;
+    private              long            paintedFirstEpochDay;
+    private              int             paintedDisabledDays;
+
+
+    // ******************** Constructors **************************************
+    MonthList(final DatePickerPopup popup, final YearMonth yearMonth) {
+        this.popup        = popup;
+        this.painter      = new MonthPainter();
+        this.origin       = yearMonth.minusYears(YEARS);
+        this.pendingMonth = yearMonth;
+        setOpaque(false);
+        setFocusable(true);
+        ToolTipManager.sharedInstance().registerComponent(this);
+        registerListeners();
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private void registerListeners() {
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override public void mousePressed(final MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) { return; }
+                LocalDate date = getDateAt(e.getX(), e.getY());
+                requestFocusInWindow();
+                if (null != date) { popup.selectDate(date); }
+            }
+            @Override public void mouseMoved(final MouseEvent e) { popup.hoverDate(getDateAt(e.getX(), e.getY())); }
+            @Override public void mouseExited(final MouseEvent e) { popup.hoverDate(null); }
+        };
+        addMouseListener(mouseAdapter);
+        addMouseMotionListener(mouseAdapter);
+        addFocusListener(new FocusListener() {
+            @Override public void focusGained(final FocusEvent e) { repaintDate(popup.getFocusedDate()); }
+            @Override public void focusLost(final FocusEvent e) { repaintDate(popup.getFocusedDate()); }
+        });
+    }
+
+    private YearMonth getMonth(final int index) { return origin.plusMonths(index); }
+
+    private double getTitleHeight() { return MONTH_HEIGHT / (double) (NO_OF_ROWS + 1); }
+
+    private void applyPendingMonth() {
+        if (null == pendingMonth || getHeight() <= 0 || !(getParent() instanceof JViewport)) { return; }
+        JViewport viewport = (JViewport) getParent();
+        int       index    = (int) ChronoUnit.MONTHS.between(origin, pendingMonth);
+        int       maxY     = Math.max(0, getHeight() - viewport.getExtentSize().height);
+        pendingMonth = null;
+        viewport.setViewPosition(new Point(0, Math.min(maxY, index * MONTH_HEIGHT)));
+    }
+
+
+    // ******************** Methods *******************************************
+    @Override public Dimension getPreferredSize() {
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        return new Dimension(painter.getNoOfColumns() * PREFERRED_WIDTH, NO_OF_MONTHS * MONTH_HEIGHT);
+    }
+
+    @Override public void setBounds(final int x, final int y, final int width, final int height) {
+        super.setBounds(x, y, width, height);
+        applyPendingMonth();
+    }
+
+    /**
+     * Returns the month that covers the given y coordinate
+     * @param y y coordinate in component space
+     * @return the month that covers the given y coordinate
+     */
+    YearMonth getMonthAt(final int y) {
+        return getMonth(Math.max(0, Math.min(NO_OF_MONTHS - 1, y / MONTH_HEIGHT)));
+    }
+
+    /**
+     * Returns the month that is shown at the top of the visible area
+     * @return the month that is shown at the top of the visible area
+     */
+    YearMonth getTopMonth() {
+        return getMonthAt(getVisibleRect().y + MONTH_HEIGHT / 3);
+    }
+
+    /**
+     * Scrolls the given month to the top of the visible area unless it is already there.
+     * If the month is outside of the covered years the list is centered around it.
+     * @param yearMonth the month to scroll to
+     */
+    void scrollToMonth(final YearMonth yearMonth) {
+        if (null == pendingMonth && getHeight() > 0 && yearMonth.equals(getTopMonth())) { return; }
+        long index = ChronoUnit.MONTHS.between(origin, yearMonth);
+        if (index < 0 || index >= NO_OF_MONTHS) {
+            origin = yearMonth.minusYears(YEARS);
+            repaint();
+        }
+        pendingMonth = yearMonth;
+        applyPendingMonth();
+    }
+
+    /**
+     * Repaints only the cell of the given date if its month is part of the list
+     * @param date the date whose cell will be repainted
+     */
+    void repaintDate(final LocalDate date) {
+        YearMonth yearMonth = YearMonth.from(date);
+        long      index     = ChronoUnit.MONTHS.between(origin, yearMonth);
+        if (index < 0 || index >= NO_OF_MONTHS) { return; }
+        MonthLayout monthLayout = MonthLayout.of(yearMonth, popup.getLocaleResources().getWeekFields());
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        double top = index * MONTH_HEIGHT + getTitleHeight();
+        repaint(painter.getCellBounds(monthLayout.getCell(date.getDayOfMonth()), 0, top, getWidth(), MONTH_HEIGHT - getTitleHeight()));
+    }
+
+    LocalDate getDateAt(final int x, final int y) {
+        if (getWidth() <= 0) { return null; }
+        YearMonth   yearMonth   = getMonthAt(y);
+        int         top         = (int) ChronoUnit.MONTHS.between(origin, yearMonth) * MONTH_HEIGHT;
+        MonthLayout monthLayout = MonthLayout.of(yearMonth, popup.getLocaleResources().getWeekFields());
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        int day = painter.getDayAt(monthLayout, x, y - top - getTitleHeight(), getWidth(), MONTH_HEIGHT - getTitleHeight());
+        return 0 == day ? null : yearMonth.atDay(day);
+    }
+
+    @Override public String getToolTipText(final MouseEvent e) {
+        LocalDate date = getDateAt(e.getX(), e.getY());
+        if (null == date || !YearMonth.from(date).equals(YearMonth.from(popup.getCurrentDate()))) { return null; }
+        DayDecoration decoration = popup.getDecoration(date.getDayOfMonth());
+        return null == decoration ? null : decoration.getTooltip();
+    }
+
+    @Override public int getState(final MonthLayout monthLayout, final int day) {
+        long epochDay = paintedFirstEpochDay + day - 1;
+        int  state    = 0 == (paintedDisabledDays & (1 << (day - 1))) ? 0 : DISABLED;
+        if (SelectionMode.RANGE == popup.getSelectionMode()) {
+            int rangeState = popup.computeRangeState(epochDay);
+            if (RANGE_INSIDE == rangeState) { state |= IN_RANGE; }
+            if (RANGE_END == rangeState)    { state |= SELECTED; }
+        } else if (epochDay == popup.getSelectedDate().toLocalDate().toEpochDay()) {
+            state |= SELECTED;
+        }
+        return hasFocus() && epochDay == popup.getFocusedDate().toEpochDay() ? state | FOCUSED : state;
+    }
+
+    @Override public DayDecoration getDecoration(final MonthLayout monthLayout, final int day) {
+        ZonedDateTime currentDate = popup.getCurrentDate();
+        YearMonth     yearMonth   = monthLayout.getYearMonth();
+        return yearMonth.getYear() == currentDate.getYear() && yearMonth.getMonthValue() == currentDate.getMonthValue() ? popup.getDecoration(day) : null;
+    }
+
+    @Override protected void paintComponent(final Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        painter.setFonts(popup.getDaysOfWeekFont(), popup.getCalendarWeekFont(), popup.getDayFont());
+        painter.setColors(popup.getTextColor(), popup.getWeekendColor());
+        painter.setStateColors(MonthPainter.getStateColors());
+        painter.setHeaderNames(popup.getHeaderNames());
+
+        // Only the months that intersect the clip are painted
+        Rectangle       clip        = g2.getClipBounds();
+        int             first       = Math.max(0, clip.y / MONTH_HEIGHT);
+        int             last        = Math.min(NO_OF_MONTHS - 1, (clip.y + clip.height) / MONTH_HEIGHT);
+        double          titleHeight = getTitleHeight();
+        LocaleResources resources   = popup.getLocaleResources();
+        DateConstraints constraints = popup.getDateConstraints();
+        for (int i = first; i <= last; i++) {
+            YearMonth   yearMonth   = getMonth(i);
+            MonthLayout monthLayout = MonthLayout.of(yearMonth, resources.getWeekFields());
+            int         y           = i * MONTH_HEIGHT;
+
+            g2.setFont(popup.getCurrentMonthFont());
+            g2.setColor(popup.getTextColor());
+            MonthPainter.drawCentered(g2, DatePickerPopup.DTF.format(yearMonth), 0, y, getWidth(), titleHeight);
+
+            paintedFirstEpochDay = yearMonth.atDay(1).toEpochDay();
+            paintedDisabledDays  = constraints.getDisabledDays(yearMonth);
+            painter.paint(g2, monthLayout, 0, y + titleHeight, getWidth(), MONTH_HEIGHT - titleHeight, this);
+        }
+        g2.dispose();
+    }
+
+    @Override public Dimension getPreferredScrollableViewportSize() {
+        painter.setCalendarWeekVisible(popup.isCalendarWeekVisible());
+        return new Dimension(painter.getNoOfColumns() * PREFERRED_WIDTH, MONTH_HEIGHT);
+    }
+
+    @Override public int getScrollableUnitIncrement(final Rectangle visibleRect, final int orientation, final int direction) {
+        return ROW_HEIGHT;
+    }
+
+    @Override public int getScrollableBlockIncrement(final Rectangle visibleRect, final int orientation, final int direction) {
+        return MONTH_HEIGHT;
+    }
+
+    @Override public boolean getScrollableTracksViewportWidth() { return true; }
+
+    @Override public boolean getScrollableTracksViewportHeight() { return false; }
+}
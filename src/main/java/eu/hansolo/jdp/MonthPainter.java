@@ -0,0 +1,256 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import eu.hansolo.jdp.core.MonthLayout;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.util.List;
+
+import static eu.hansolo.jdp.core.MonthLayout.DAYS_PER_WEEK;
+import static eu.hansolo.jdp.core.MonthLayout.NO_OF_WEEKS;
+
+
+/**
+ * Paints the header and the days of one month into a given area of a component.
+ * It is shared by the CalendarGrid of the DatePickerPopup and the MultiMonthPopup,
+ * which both only configure it and tell it about the state of each day. The painter
+ * never reads the UIManager itself, the colors of the states are resolved by the
+ * caller with getStateColors(), so a painter can also be used off the EDT.
+ */
+final class MonthPainter {
+            static final    int          NO_OF_ROWS      = NO_OF_WEEKS + 1;
+            static final    int          SELECTED        = 1;
+            static final    int          IN_RANGE        = 2;
+            static final    int          DISABLED        = 4;
+            static final    int          FOCUSED         = 8;
+    private static final    Color        SELECTION_COLOR = new Color(184, 207, 229);
+    private static final    Color        DISABLED_COLOR  = new Color(153, 153, 153);
+    private static final    String[]     NUMBERS         = new String[54];
+    private static volatile StateColors  cachedColors    = new StateColors(SELECTION_COLOR, DISABLED_COLOR);
+    private                 StateColors  stateColors     = cachedColors;
+    private                 Font         daysOfWeekFont;
+    private                 Font         calendarWeekFont;
+    private                 Font         dayFont;
+    private                 Color        textColor;
+    private                 Color        weekendColor;
+    private                 boolean      calendarWeekVisible;
+    private                 List<String> headerNames;
+
+    static {
+        for (int i = 0; i < NUMBERS.length; i++) { NUMBERS[i] = Integer.toString(i); }
+    }
+
+
+    // ******************** Methods *******************************************
+    void setFonts(final Font daysOfWeekFont, final Font calendarWeekFont, final Font dayFont) {
+        this.daysOfWeekFont   = daysOfWeekFont;
+        this.calendarWeekFont = calendarWeekFont;
+        this.dayFont          = dayFont;
+    }
+
+    void setColors(final Color textColor, final Color weekendColor) {
+        this.textColor    = textColor;
+        this.weekendColor = weekendColor;
+    }
+
+    /**
+     * Sets the colors of the selected, in range and disabled days
+     * @param stateColors the colors resolved with getStateColors() on the calling thread
+     */
+    void setStateColors(final StateColors stateColors) { this.stateColors = stateColors; }
+
+    void setHeaderNames(final List<String> headerNames) { this.headerNames = headerNames; }
+
+    void setCalendarWeekVisible(final boolean calendarWeekVisible) { this.calendarWeekVisible = calendarWeekVisible; }
+
+    int getNoOfColumns() { return calendarWeekVisible ? DAYS_PER_WEEK + 1 : DAYS_PER_WEEK; }
+
+    /**
+     * Returns the day at the given position in a month painted into the given area or 0 if there is no day
+     * @param monthLayout the layout of the painted month
+     * @param x           x coordinate relative to the area of the month
+     * @param y           y coordinate relative to the area of the month
+     * @param width       width of the area of the month
+     * @param height      height of the area of the month
+     * @return the day of month at the given position or 0
+     */
+    int getDayAt(final MonthLayout monthLayout, final double x, final double y, final double width, final double height) {
+        if (width <= 0 || height <= 0 || x < 0 || y < 0) { return 0; }
+        int column = (int) (x / (width / getNoOfColumns())) - (calendarWeekVisible ? 1 : 0);
+        int row    = (int) (y / (height / NO_OF_ROWS)) - 1;
+        if (column < 0 || column >= DAYS_PER_WEEK || row < 0 || row >= NO_OF_WEEKS) { return 0; }
+        return monthLayout.getDay(row * DAYS_PER_WEEK + column);
+    }
+
+    /**
+     * Returns the bounds of the given cell in a month painted into the given area
+     * @param cell   index of the cell in the range of 0 - 41
+     * @param x      x coordinate of the area of the month
+     * @param y      y coordinate of the area of the month
+     * @param width  width of the area of the month
+     * @param height height of the area of the month
+     * @return the bounds of the given cell including a one pixel margin
+     */
+    Rectangle getCellBounds(final int cell, final double x, final double y, final double width, final double height) {
+        double cellWidth  = width / getNoOfColumns();
+        double cellHeight = height / NO_OF_ROWS;
+        int    column     = cell % DAYS_PER_WEEK + (calendarWeekVisible ? 1 : 0);
+        int    row        = cell / DAYS_PER_WEEK + 1;
+        return new Rectangle((int) (x + column * cellWidth), (int) (y + row * cellHeight), (int) Math.ceil(cellWidth) + 1, (int) Math.ceil(cellHeight) + 1);
+    }
+
+    /**
+     * Paints the names of the week days, the calendar weeks and the days of the given month
+     * @param g2          the graphics to paint on
+     * @param monthLayout the layout of the month to paint
+     * @param x           x coordinate of the area of the month
+     * @param y           y coordinate of the area of the month
+     * @param width       width of the area of the month
+     * @param height      height of the area of the month
+     * @param days        provides the state and decoration of each day
+     */
+    void paint(final Graphics2D g2, final MonthLayout monthLayout, final double x, final double y, final double width, final double height, final Days days) {
+        int    columnOffset   = calendarWeekVisible ? 1 : 0;
+        double cellWidth      = width / getNoOfColumns();
+        double cellHeight     = height / NO_OF_ROWS;
+        Color  selectionColor = stateColors.selectionColor;
+        Color  rangeColor     = stateColors.rangeColor;
+        Color  disabledColor  = stateColors.disabledColor;
+
+        // Days of week
+        g2.setFont(daysOfWeekFont);
+        for (int i = 0; i < DAYS_PER_WEEK; i++) {
+            g2.setColor(monthLayout.isWeekend(i) ? weekendColor : textColor);
+            drawCentered(g2, headerNames.get(i), x + (columnOffset + i) * cellWidth, y, cellWidth, cellHeight);
+        }
+
+        for (int r = 0; r < monthLayout.getNoOfWeeks(); r++) {
+            double cellY = y + (r + 1) * cellHeight;
+
+            // Calendar week
+            if (calendarWeekVisible) {
+                g2.setFont(calendarWeekFont);
+                g2.setColor(textColor);
+                drawCentered(g2, NUMBERS[monthLayout.getWeekNumber(r)], x, cellY, cellWidth, cellHeight);
+            }
+
+            // Days
+            g2.setFont(dayFont);
+            for (int c = 0; c < DAYS_PER_WEEK; c++) {
+                int day = monthLayout.getDay(r * DAYS_PER_WEEK + c);
+                if (0 == day) { continue; }
+                double cellX = x + (columnOffset + c) * cellWidth;
+                int    state = days.getState(monthLayout, day);
+                if (0 != (state & IN_RANGE)) {
+                    g2.setColor(rangeColor);
+                    g2.fillRect((int) cellX, (int) cellY + 1, (int) Math.ceil(cellWidth), (int) cellHeight - 2);
+                }
+                if (0 != (state & SELECTED)) {
+                    g2.setColor(selectionColor);
+                    g2.fillRoundRect((int) cellX + 1, (int) cellY + 1, (int) cellWidth - 2, (int) cellHeight - 2, 4, 4);
+                }
+                if (0 != (state & FOCUSED)) {
+                    g2.setColor(selectionColor.darker());
+                    g2.drawRoundRect((int) cellX + 1, (int) cellY + 1, (int) cellWidth - 3, (int) cellHeight - 3, 4, 4);
+                }
+                DayDecoration decoration = days.getDecoration(monthLayout, day);
+                if (0 != (state & DISABLED)) {
+                    g2.setColor(disabledColor);
+                } else if (null != decoration && null != decoration.getTextColor()) {
+                    g2.setColor(decoration.getTextColor());
+                } else {
+                    g2.setColor(textColor);
+                }
+                drawCentered(g2, NUMBERS[day], cellX, cellY, cellWidth, cellHeight);
+                if (null != decoration && null != decoration.getMarkerColor()) {
+                    double markerSize = Math.max(3, cellHeight * 0.15);
+                    g2.setColor(decoration.getMarkerColor());
+                    g2.fill(new Ellipse2D.Double(cellX + (cellWidth - markerSize) * 0.5, cellY + cellHeight - markerSize - 1, markerSize, markerSize));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the colors of the selected, in range and disabled days of the current LookAndFeel.
+     * They are read from the UIManager, so this has to be called on the EDT or the thread that
+     * set the LookAndFeel. The colors are cached until the UIManager returns other ones.
+     * @return the colors of the selected, in range and disabled days
+     */
+    static StateColors getStateColors() {
+        Color       selectionColor = UIManager.getColor("List.selectionBackground");
+        Color       disabledColor  = UIManager.getColor("Button.disabledText");
+        StateColors cached         = cachedColors;
+        if (null == selectionColor) { selectionColor = SELECTION_COLOR; }
+        if (null == disabledColor)  { disabledColor  = DISABLED_COLOR; }
+        if (cached.selectionColor.equals(selectionColor) && cached.disabledColor.equals(disabledColor)) { return cached; }
+        cached       = new StateColors(selectionColor, disabledColor);
+        cachedColors = cached;
+        return cached;
+    }
+
+    /**
+     * Returns the selection color blended with white to mark the days inside of a range
+     * @return the color of the days inside of a selected range
+     */
+    static Color getRangeColor() { return getStateColors().rangeColor; }
+
+    static void drawCentered(final Graphics2D g2, final String text, final double x, final double y, final double width, final double height) {
+        FontMetrics metrics = g2.getFontMetrics();
+        float       textX   = (float) (x + (width - metrics.stringWidth(text)) * 0.5);
+        float       textY   = (float) (y + (height - metrics.getHeight()) * 0.5 + metrics.getAscent());
+        g2.drawString(text, textX, textY);
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * The colors of the selected, in range and disabled days. The range color is the
+     * selection color blended with white.
+     */
+    static final class StateColors {
+        private final Color selectionColor;
+        private final Color rangeColor;
+        private final Color disabledColor;
+
+
+        StateColors(final Color selectionColor, final Color disabledColor) {
+            this.selectionColor = selectionColor;
+            this.rangeColor     = new Color((selectionColor.getRed() + 255) / 2, (selectionColor.getGreen() + 255) / 2, (selectionColor.getBlue() + 255) / 2);
+            this.disabledColor  = disabledColor;
+        }
+    }
+
+    /**
+     * Tells the painter about the state and decoration of the days of a month
+     */
+    interface Days {
+        /**
+         * Returns the state of the given day as a combination of SELECTED, IN_RANGE, DISABLED and FOCUSED
+         * @param monthLayout the layout of the painted month
+         * @param day         day of month
+         * @return the state of the given day
+         */
+        int getState(final MonthLayout monthLayout, final int day);
+
+        DayDecoration getDecoration(final MonthLayout monthLayout, final int day);
+    }
+}
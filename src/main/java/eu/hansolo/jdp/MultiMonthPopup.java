@@ -0,0 +1,320 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import eu.hansolo.jdp.core.DateConstraints;
+import eu.hansolo.jdp.core.LocaleResources;
+import eu.hansolo.jdp.core.MonthLayout;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static eu.hansolo.jdp.MonthPainter.DISABLED;
+import static eu.hansolo.jdp.MonthPainter.NO_OF_ROWS;
+import static eu.hansolo.jdp.MonthPainter.SELECTED;
+
+
+/**
+ * Shows 2, 3 or up to 12 consecutive months side by side, e.g. as a year planner.
+ * All months are painted by this single component in one paint pass using the same
+ * month computation, fonts and locale resources as the DatePickerPopup.
+ * The mouse wheel moves the visible months back and forth.
+ */
+public class MultiMonthPopup extends JComponent implements MonthPainter.Days {
+    public  static final int                           YEAR             = 12;
+    private static final DateTimeFormatter             DTF              = DateTimeFormatter.ofPattern("MMMM yyyy");
+    private static final int                           MAX_COLUMNS      = 4;
+    private static final int                           PREFERRED_WIDTH  = 240;
+    private static final int                           PREFERRED_HEIGHT = 200;
+    private        final MonthPainter                  painter;
+    private        final List<DatePickerEventObserver> observers;
+    private        final int                           noOfMonths;
+    private        final int                           noOfColumns;
+    private        final int                           noOfRows;
+    private volatile     Locale                        locale;
+    private volatile     LocaleResources               localeResources;
+    private volatile     YearMonth                     firstMonth;
+    private volatile     LocalDate                     selectedDate;
+    private volatile     ZoneId                        zoneId;
+    private volatile     boolean                       calendarWeekVisible;
+    private volatile     Color                         textColor;
+    private volatile     Color                         weekendColor;
+    private volatile     DateConstraints               dateConstraints;
+    private              PopupMetrics                  metrics;
+    private              int                           disabledDays;
+
+
+    // ******************** Constructors **************************************
+    public MultiMonthPopup() {
+        this(Locale.getDefault(), YearMonth.now(), 3);
+    }
+    public MultiMonthPopup(final int noOfMonths) {
+        this(Locale.getDefault(), YearMonth.now(), noOfMonths);
+    }
+    public MultiMonthPopup(final Locale locale, final YearMonth firstMonth, final int noOfMonths) {
+        this(locale, false, firstMonth, noOfMonths, LocalDate.now(), ZoneId.systemDefault(), Color.black, Color.red);
+    }
+    public MultiMonthPopup(final Locale locale, final boolean calendarWeekVisible, final YearMonth firstMonth, final int noOfMonths, final LocalDate selectedDate, final ZoneId zoneId, final Color textColor, final Color weekendColor) {
+        if (noOfMonths < 1 || noOfMonths > YEAR) { throw new IllegalArgumentException("noOfMonths must be in the range of 1 - " + YEAR); }
+        setBorder(new EmptyBorder(1, 1, 1, 1));
+        this.painter             = new MonthPainter();
+        this.observers           = new CopyOnWriteArrayList<>();
+        this.noOfMonths          = noOfMonths;
+        this.noOfColumns         = noOfMonths <= MAX_COLUMNS ? noOfMonths : noOfMonths <= 6 ? 3 : MAX_COLUMNS;
+        this.noOfRows            = (noOfMonths + noOfColumns - 1) / noOfColumns;
+        this.locale              = locale;
+        this.localeResources     = LocaleResources.of(locale);
+        this.calendarWeekVisible = calendarWeekVisible;
+        this.firstMonth          = firstMonth;
+        this.selectedDate        = selectedDate;
+        this.zoneId              = zoneId;
+        this.textColor           = textColor;
+        this.weekendColor        = weekendColor;
+        this.dateConstraints     = DateConstraints.NONE;
+        this.metrics             = PopupMetrics.DEFAULT;
+        registerListeners();
+    }
+
+
+    // ******************** Private Methods ***********************************
+    private void registerListeners() {
+        MouseAdapter mouseAdapter = new MouseAdapter() {
+            @Override public void mousePressed(final MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) { return; }
+                LocalDate date = getDateAt(e.getX(), e.getY());
+                if (null != date) { selectDate(date); }
+            }
+            @Override public void mouseWheelMoved(final MouseWheelEvent e) {
+                if (0 == e.getWheelRotation()) { return; }
+                setFirstMonth(getFirstMonth().plusMonths(e.getWheelRotation()));
+                DatePickerEventType type = e.getWheelRotation() > 0 ? DatePickerEventType.NEXT_MONTH : DatePickerEventType.PREVIOUS_MONTH;
+                fireDatePickerEvent(new DatePickerEvent(MultiMonthPopup.this, type, getFirstMonth().atDay(1).atStartOfDay(getZoneId())));
+            }
+        };
+        addMouseListener(mouseAdapter);
+        addMouseWheelListener(mouseAdapter);
+    }
+
+    private void selectDate(final LocalDate date) {
+        if (!getDateConstraints().isAllowed(date)) { return; }
+        LocalDate previous = selectedDate;
+        selectedDate = date;
+        repaintDate(previous);
+        repaintDate(date);
+        fireDatePickerEvent(new DatePickerEvent(MultiMonthPopup.this, DatePickerEventType.DATE_SELECTED, date.atStartOfDay(getZoneId())));
+    }
+
+    /**
+     * Repaints only the cell of the given date if it is visible
+     * @param date the date to repaint
+     */
+    private void repaintDate(final LocalDate date) {
+        if (null == date) { return; }
+        int index = (int) (date.getYear() * 12L + date.getMonthValue() - (firstMonth.getYear() * 12L + firstMonth.getMonthValue()));
+        if (index < 0 || index >= noOfMonths) { return; }
+        Rectangle   month       = getMonthBounds(index);
+        double      titleHeight = month.height / (double) (NO_OF_ROWS + 1);
+        MonthLayout monthLayout = MonthLayout.of(YearMonth.from(date), localeResources.getWeekFields());
+        painter.setCalendarWeekVisible(isCalendarWeekVisible());
+        repaint(painter.getCellBounds(monthLayout.getCell(date.getDayOfMonth()), month.x, month.y + titleHeight, month.width, month.height - titleHeight));
+    }
+
+    private Rectangle getMonthBounds(final int index) {
+        Insets insets = getInsets();
+        double width  = (getWidth() - insets.left - insets.right) / (double) noOfColumns;
+        double height = (getHeight() - insets.top - insets.bottom) / (double) noOfRows;
+        int    column = index % noOfColumns;
+        int    row    = index / noOfColumns;
+        return new Rectangle((int) (insets.left + column * width), (int) (insets.top + row * height), (int) width, (int) height);
+    }
+
+
+    // ******************** Public Methods ************************************
+    @Override public Dimension getMinimumSize() {
+        return new Dimension(noOfColumns * PREFERRED_WIDTH / 2, noOfRows * PREFERRED_HEIGHT / 2);
+    }
+    @Override public Dimension getPreferredSize() {
+        return new Dimension(noOfColumns * PREFERRED_WIDTH, noOfRows * PREFERRED_HEIGHT);
+    }
+
+    public int getNoOfMonths() {
+        return noOfMonths;
+    }
+
+    /**
+     * Returns the date at the given position or null if there is no day at this position
+     * @param x x coordinate in component space
+     * @param y y coordinate in component space
+     * @return the date at the given position or null
+     */
+    public LocalDate getDateAt(final int x, final int y) {
+        if (getWidth() <= 0 || getHeight() <= 0) { return null; }
+        painter.setCalendarWeekVisible(isCalendarWeekVisible());
+        for (int i = 0; i < noOfMonths; i++) {
+            Rectangle month = getMonthBounds(i);
+            if (!month.contains(x, y)) { continue; }
+            double      titleHeight = month.height / (double) (NO_OF_ROWS + 1);
+            YearMonth   yearMonth   = getFirstMonth().plusMonths(i);
+            MonthLayout monthLayout = MonthLayout.of(yearMonth, localeResources.getWeekFields());
+            int         day         = painter.getDayAt(monthLayout, x - month.x, y - month.y - titleHeight, month.width, month.height - titleHeight);
+            return 0 == day ? null : yearMonth.atDay(day);
+        }
+        return null;
+    }
+
+    public YearMonth getFirstMonth() {
+        return firstMonth;
+    }
+    public void setFirstMonth(final YearMonth firstMonth) {
+        this.firstMonth = firstMonth;
+        repaint();
+    }
+
+    public LocalDate getSelectedDate() {
+        return selectedDate;
+    }
+    public void setSelectedDate(final LocalDate selectedDate) {
+        this.selectedDate = selectedDate;
+        repaint();
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+    public void setLocale(final Locale locale) {
+        this.locale          = locale;
+        this.localeResources = LocaleResources.of(locale);
+        repaint();
+    }
+
+    public ZoneId getZoneId() {
+        return zoneId;
+    }
+    public void setZoneId(final ZoneId zoneId) {
+        this.zoneId = zoneId;
+    }
+
+    public boolean isCalendarWeekVisible() {
+        return calendarWeekVisible;
+    }
+    public void setCalendarWeekVisible(final boolean calendarWeekVisible) {
+        this.calendarWeekVisible = calendarWeekVisible;
+        repaint();
+    }
+
+    public Color getTextColor() {
+        return textColor;
+    }
+    public void setTextColor(final Color textColor) {
+        this.textColor = textColor;
+        repaint();
+    }
+
+    public Color getWeekendColor() {
+        return weekendColor;
+    }
+    public void setWeekendColor(final Color weekendColor) {
+        this.weekendColor = weekendColor;
+        repaint();
+    }
+
+    public DateConstraints getDateConstraints() {
+        return dateConstraints;
+    }
+    public void setDateConstraints(final DateConstraints dateConstraints) {
+        this.dateConstraints = null == dateConstraints ? DateConstraints.NONE : dateConstraints;
+        repaint();
+    }
+
+    public void setOnDatePickerEvent(final DatePickerEventObserver observer) {
+        addDatePickerEventObserver(observer);
+    }
+    public void addDatePickerEventObserver(final DatePickerEventObserver observer) {
+        if (observers.contains(observer)) { return; }
+        observers.add(observer);
+    }
+    public void removeDatePickerEventObserver(final DatePickerEventObserver observer) {
+        observers.remove(observer);
+    }
+
+    public void fireDatePickerEvent(final DatePickerEvent event) {
+        observers.forEach(observer -> observer.onDatePickerEvent(event));
+    }
+
+    @Override public int getState(final MonthLayout monthLayout, final int day) {
+        int state = 0 == (disabledDays & (1 << (day - 1))) ? 0 : DISABLED;
+        LocalDate selected = selectedDate;
+        if (null != selected && day == selected.getDayOfMonth() && monthLayout.getYearMonth().equals(YearMonth.from(selected))) {
+            state |= SELECTED;
+        }
+        return state;
+    }
+
+    @Override public DayDecoration getDecoration(final MonthLayout monthLayout, final int day) {
+        return null;
+    }
+
+    @Override protected void paintComponent(final Graphics g) {
+        super.paintComponent(g);
+        if (getWidth() <= 0 || getHeight() <= 0) { return; }
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // All months have the same size, so they share one set of fonts
+        Rectangle         first          = getMonthBounds(0);
+        LocaleResources   resources      = localeResources;
+        DateConstraints   constraints    = getDateConstraints();
+        DateTimeFormatter titleFormatter = DTF.withLocale(getLocale());
+        metrics = PopupMetrics.forFullMonth(UIManager.getLookAndFeel(), first.width, first.height);
+        painter.setCalendarWeekVisible(isCalendarWeekVisible());
+        painter.setFonts(metrics.getDaysOfWeekFont(), metrics.getCalendarWeekFont(), metrics.getDayFont());
+        painter.setColors(getTextColor(), getWeekendColor());
+        painter.setStateColors(MonthPainter.getStateColors());
+        painter.setHeaderNames(metrics.isLongWeekDays() ? resources.getWeekDaysLong() : resources.getWeekDays());
+
+        Rectangle clip = g2.getClipBounds();
+        for (int i = 0; i < noOfMonths; i++) {
+            Rectangle month = getMonthBounds(i);
+            if (null != clip && !clip.intersects(month)) { continue; }
+            YearMonth   yearMonth   = getFirstMonth().plusMonths(i);
+            MonthLayout monthLayout = MonthLayout.of(yearMonth, resources.getWeekFields());
+            double      titleHeight = month.height / (double) (NO_OF_ROWS + 1);
+
+            g2.setFont(metrics.getCurrentMonthFont());
+            g2.setColor(getTextColor());
+            MonthPainter.drawCentered(g2, titleFormatter.format(yearMonth), month.x, month.y, month.width, titleHeight);
+
+            disabledDays = constraints.getDisabledDays(yearMonth);
+            painter.paint(g2, monthLayout, month.x, month.y + titleHeight, month.width, month.height - titleHeight, this);
+        }
+        g2.dispose();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Flight recorder events that are emitted by the DatePickerPopup so the time
+ * spent on the EDT can be attributed to the date pickers in a recording.
+ */
+@Category({ "JDP", "Date Picker" })
+@StackTrace(false)
+abstract class PopupEvent extends Event {
+    @Label("Popup Id")
+    @Description("Identity hash code of the popup")
+    int    popupId;
+
+    @Label("Display Mode")
+    String displayMode;
+
+    @Label("Locale")
+    String locale;
+
+    @Label("Observer Count")
+    int    observerCount;
+
+
+    // ******************** Inner Classes *************************************
+    @Name("eu.hansolo.jdp.Init")
+    @Label("Popup Init")
+    @Description("Creation of the components of a DatePickerPopup")
+    static final class Init extends PopupEvent { }
+
+    @Name("eu.hansolo.jdp.ReInit")
+    @Label("Popup ReInit")
+    @Description("Relayout and update of all cells of a DatePickerPopup")
+    static final class ReInit extends PopupEvent { }
+
+    @Name("eu.hansolo.jdp.UpdateCells")
+    @Label("Popup Update Cells")
+    @Description("Update of the content of all cells of a DatePickerPopup")
+    static final class UpdateCells extends PopupEvent { }
+
+    @Name("eu.hansolo.jdp.Paint")
+    @Label("Popup Paint")
+    @Description("Painting of a DatePickerPopup")
+    static final class Paint extends PopupEvent { }
+
+    @Name("eu.hansolo.jdp.Dispatch")
+    @Label("Popup Dispatch")
+    @Description("Dispatch of a DatePickerEvent to the observers of a DatePickerPopup")
+    static final class Dispatch extends PopupEvent {
+        @Label("Event Type")
+        String eventType;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import javax.swing.*;
+import javax.swing.plaf.nimbus.NimbusLookAndFeel;
+import java.awt.*;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Immutable set of fonts used by the DatePickerPopup for a given LookAndFeel and size bucket.
+ * Instances are shared between all popups, so resizing only allocates fonts for sizes that
+ * have never been used before.
+ */
+final class PopupMetrics {
+    static final         PopupMetrics            DEFAULT           = new PopupMetrics(10, false);
+    private static final Map<Key, PopupMetrics>  CACHE             = new ConcurrentHashMap<>();
+    private static final Map<String, int[]>      DIVISORS          = new ConcurrentHashMap<>();
+    private        final int                     fontSize;
+    private        final boolean                 longWeekDays;
+    private        final Font                    currentMonthFont;
+    private        final Font                    daysOfWeekFont;
+    private        final Font                    calendarWeekFont;
+    private        final Font                    dayFont;
+    private        final Font                    spinnerFont;
+    private        final Font                    todaysDateFont;
+
+
+    // ******************** Constructors **************************************
+    private PopupMetrics(final int fontSize, final boolean longWeekDays) {
+        this.fontSize         = fontSize;
+        this.longWeekDays     = longWeekDays;
+        this.currentMonthFont = new Font("SansSerif", Font.BOLD, Helper.clamp(5, 16, fontSize + 2));
+        this.daysOfWeekFont   = new Font("SansSerif", Font.PLAIN, fontSize);
+        this.calendarWeekFont = new Font("SansSerif", Font.PLAIN, fontSize - 2);
+        this.dayFont          = new Font("SansSerif", Font.PLAIN, fontSize);
+        this.spinnerFont      = new Font("SansSerif", Font.PLAIN, fontSize + 2);
+        this.todaysDateFont   = new Font("SansSerif", Font.BOLD, fontSize);
+    }
+
+
+    // ******************** Methods *******************************************
+    /**
+     * Returns the shared metrics for a popup of the given size in the given LookAndFeel
+     * @param laf    the current LookAndFeel
+     * @param width  the width of the popup
+     * @param height the height of the popup
+     * @return the shared metrics for a popup of the given size in the given LookAndFeel
+     */
+    static PopupMetrics of(final LookAndFeel laf, final int width, final int height) {
+        final String  lafName      = null == laf ? "" : laf.getClass().getName();
+        final int[]   divisors     = DIVISORS.computeIfAbsent(lafName, name -> laf instanceof NimbusLookAndFeel ? new int[] { 22, 32 } : new int[] { 20, 30 });
+        final int     minHeight    = height / divisors[0];
+        final int     cellWidth    = width / divisors[1];
+        final int     fontSize     = Helper.clamp(4, minHeight, cellWidth);
+        final boolean longWeekDays = cellWidth > minHeight * 0.2;
+        return CACHE.computeIfAbsent(new Key(lafName, fontSize, longWeekDays), key -> new PopupMetrics(fontSize, longWeekDays));
+    }
+
+    /**
+     * Returns the shared metrics for a single month that fills the given area. In the DatePickerPopup
+     * the month grid only takes up about two thirds of the popup, so the area is scaled up accordingly.
+     * @param laf    the current LookAndFeel
+     * @param width  the width of the month
+     * @param height the height of the month
+     * @return the shared metrics for a month that fills an area of the given size
+     */
+    static PopupMetrics forFullMonth(final LookAndFeel laf, final int width, final int height) {
+        return of(laf, width * 3 / 2, height * 3 / 2);
+    }
+
+    int getFontSize() { return fontSize; }
+
+    boolean isLongWeekDays() { return longWeekDays; }
+
+    Font getCurrentMonthFont() { return currentMonthFont; }
+
+    Font getDaysOfWeekFont() { return daysOfWeekFont; }
+
+    Font getCalendarWeekFont() { return calendarWeekFont; }
+
+    Font getDayFont() { return dayFont; }
+
+    Font getSpinnerFont() { return spinnerFont; }
+
+    Font getTodaysDateFont() { return todaysDateFont; }
+
+
+    // ******************** Inner Classes *************************************
+    private static final class Key {
+        private final String  lafName;
+        private final int     fontSize;
+        private final boolean longWeekDays;
+
+
+        Key(final String lafName, final int fontSize, final boolean longWeekDays) {
+            this.lafName      = lafName;
+            this.fontSize     = fontSize;
+            this.longWeekDays = longWeekDays;
+        }
+
+
+        @Override public boolean equals(final Object o) {
+            if (this == o) { return true; }
+            if (!(o instanceof Key)) { return false; }
+            Key key = (Key) o;
+            return fontSize == key.fontSize && longWeekDays == key.longWeekDays && lafName.equals(key.lafName);
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(lafName, fontSize, longWeekDays);
+        }
+    }
+}
@@ -20,6 +20,11 @@ module eu.hansolo.jdp {
     // Java
     requires java.base;
     requires java.desktop;
+    requires java.management;
+    requires jdk.jfr;
+
+    // Jdp
+    requires transitive eu.hansolo.jdp.core;
 
     exports eu.hansolo.jdp;
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import javax.swing.*;
+import java.awt.*;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+/**
+ * Checks the bytes allocated on the event dispatch thread and the number of components of the
+ * hot paths against declared budgets, so that construction stays cheap and navigation, selection
+ * and locale switches keep their constant cost. Every operation is warmed up before it is measured
+ * and the average of all measured iterations is compared with the budget. Each operation is only
+ * measured once, the allocation and the component test of a budget share the result.
+ */
+class AllocationBudgetTest {
+    private static final int                 WARMUP_ITERATIONS = 2_000;
+    private static final int                 ITERATIONS        = 1_000;
+    private static final int                 WIDTH             = 330;
+    private static final int                 HEIGHT            = 260;
+    private static final ZoneId              ZONE_ID           = ZoneId.of("UTC");
+    private static final ZonedDateTime       SELECTED_DATE     = ZonedDateTime.of(2020, 6, 15, 12, 0, 0, 0, ZONE_ID);
+    private static final ThreadMXBean        THREAD_MX_BEAN    = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final Map<Budget, Result> RESULTS           = new HashMap<>();
+    private static final List<Budget>        BUDGETS           = List.of(
+        new Budget(Operation.CONSTRUCTION,  GridStyle.BUTTONS,   20_000,  3),
+        new Budget(Operation.POPUP,         GridStyle.BUTTONS,   320_000, 70),
+        new Budget(Operation.POPUP,         GridStyle.PAINTED,   120_000, 14),
+        new Budget(Operation.POPUP,         GridStyle.SCROLLING, 144_000, 22),
+        new Budget(Operation.NEXT_MONTH,    GridStyle.BUTTONS,   12_000,  70),
+        new Budget(Operation.NEXT_MONTH,    GridStyle.PAINTED,   4_500,   14),
+        new Budget(Operation.NEXT_MONTH,    GridStyle.SCROLLING, 4_500,   22),
+        new Budget(Operation.SELECT_DAY,    GridStyle.BUTTONS,   12_000,  70),
+        new Budget(Operation.SELECT_DAY,    GridStyle.PAINTED,   12_000,  14),
+        new Budget(Operation.SELECT_DAY,    GridStyle.SCROLLING, 12_000,  22),
+        new Budget(Operation.SWITCH_LOCALE, GridStyle.BUTTONS,   43_000,  70),
+        new Budget(Operation.SWITCH_LOCALE, GridStyle.PAINTED,   35_000,  14),
+        new Budget(Operation.SWITCH_LOCALE, GridStyle.SCROLLING, 35_000,  22));
+
+
+    @BeforeAll static void enableAllocationMeasurement() {
+        assumeTrue(THREAD_MX_BEAN.isThreadAllocatedMemorySupported(), "Measuring allocated bytes is not supported by this JVM");
+        THREAD_MX_BEAN.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    static List<Budget> budgets() { return BUDGETS; }
+
+
+    @ParameterizedTest(name = "{0}") @MethodSource("budgets")
+    void allocatesWithinBudget(final Budget budget) throws Exception {
+        Result result = measure(budget);
+        assertTrue(result.bytesPerOperation <= budget.maxBytes, () -> budget + " allocates " + result.bytesPerOperation + " bytes/op, the budget is " + budget.maxBytes);
+    }
+
+    @ParameterizedTest(name = "{0}") @MethodSource("budgets")
+    void createsComponentsWithinBudget(final Budget budget) throws Exception {
+        Result result = measure(budget);
+        assertTrue(result.components <= budget.maxComponents, () -> budget + " creates " + result.components + " components, the budget is " + budget.maxComponents);
+        if (!budget.operation.isConstruction()) {
+            assertEquals(result.initialComponents, result.components, () -> budget + " changed the number of components");
+        }
+    }
+
+
+    private static Result measure(final Budget budget) throws Exception {
+        Result cached = RESULTS.get(budget);
+        if (null != cached) { return cached; }
+
+        Result result = new Result();
+        onEdt(() -> {
+            DatePickerPopup popup = budget.operation.isConstruction() ? null : createPopup(budget.gridStyle);
+            result.initialComponents = null == popup ? 0 : countComponents(popup);
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) { run(budget, popup, i); }
+
+            long threadId = Thread.currentThread().getId();
+            long before   = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < ITERATIONS; i++) { run(budget, popup, i); }
+            long after    = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+
+            result.bytesPerOperation = (after - before) / ITERATIONS;
+            result.components        = countComponents(null == popup ? run(budget, null, 0) : popup);
+        });
+        RESULTS.put(budget, result);
+        return result;
+    }
+
+    private static JComponent run(final Budget budget, final DatePickerPopup popup, final int iteration) {
+        boolean even = 0 == iteration % 2;
+        switch (budget.operation) {
+            case CONSTRUCTION : return createDatePicker(budget.gridStyle);
+            case POPUP        : return createPopup(budget.gridStyle);
+            case NEXT_MONTH   : popup.setCurrentDate(popup.getCurrentDate().plusMonths(1)); break;
+            case SELECT_DAY   : popup.setSelectedDate(popup.getSelectedDate().withDayOfMonth(even ? 14 : 15)); break;
+            case SWITCH_LOCALE: popup.setLocale(even ? Locale.GERMANY : Locale.US); break;
+        }
+        popup.validateNow();
+        return popup;
+    }
+
+    private static DatePicker createDatePicker(final GridStyle gridStyle) {
+        return new DatePicker(Locale.US, true, true, SELECTED_DATE, ZONE_ID, DisplayMode.DATE_AND_TIME, Color.black, Color.red, true, gridStyle);
+    }
+
+    private static DatePickerPopup createPopup(final GridStyle gridStyle) {
+        DatePickerPopup popup = new DatePickerPopup(Locale.US, true, true, SELECTED_DATE, ZONE_ID, DisplayMode.DATE_AND_TIME, Color.black, Color.red, gridStyle);
+        popup.setSize(WIDTH, HEIGHT);
+        popup.doLayout();
+        popup.validateNow();
+        return popup;
+    }
+
+    private static int countComponents(final Container container) {
+        int count = 1;
+        for (Component component : container.getComponents()) {
+            count += component instanceof Container ? countComponents((Container) component) : 1;
+        }
+        return count;
+    }
+
+    private static void onEdt(final Runnable runnable) throws InterruptedException, InvocationTargetException {
+        if (SwingUtilities.isEventDispatchThread()) {
+            runnable.run();
+        } else {
+            SwingUtilities.invokeAndWait(runnable);
+        }
+    }
+
+
+    // ******************** Inner Classes *************************************
+    /**
+     * CONSTRUCTION creates a DatePicker (its popup is created lazily), POPUP creates and lays out a DatePickerPopup,
+     * the other operations are executed on a popup that has been laid out once
+     */
+    enum Operation {
+        CONSTRUCTION, POPUP, NEXT_MONTH, SELECT_DAY, SWITCH_LOCALE;
+
+        boolean isConstruction() { return CONSTRUCTION == this || POPUP == this; }
+    }
+
+    static final class Budget {
+        private final Operation operation;
+        private final GridStyle gridStyle;
+        private final long      maxBytes;
+        private final int       maxComponents;
+
+
+        Budget(final Operation operation, final GridStyle gridStyle, final long maxBytes, final int maxComponents) {
+            this.operation     = operation;
+            this.gridStyle     = gridStyle;
+            this.maxBytes      = maxBytes;
+            this.maxComponents = maxComponents;
+        }
+
+
+        @Override public String toString() { return operation + " " + gridStyle; }
+    }
+
+    private static final class Result {
+        private long bytesPerOperation;
+        private int  initialComponents;
+        private int  components;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Checks that typed dates are committed when a table stops editing and that the
+ * renderer shows values with and without a date.
+ */
+class DatePickerCellEditorTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+
+    @Test void stopCellEditingCommitsTypedDate() throws Exception {
+        onEdt(() -> {
+            DatePickerCellEditor editor = createEditor();
+            getDateField(editor).setText("3/4/21");
+            assertTrue(editor.stopCellEditing());
+            assertEquals(LocalDate.of(2021, 3, 4), editor.getCellEditorValue());
+        });
+    }
+
+    @Test void stopCellEditingKeepsEditingInvalidText() throws Exception {
+        onEdt(() -> {
+            DatePickerCellEditor editor = createEditor();
+            getDateField(editor).setText("no date");
+            assertFalse(editor.stopCellEditing());
+            assertEquals(LocalDate.of(2020, 6, 15), editor.getCellEditorValue());
+        });
+    }
+
+    @Test void rendererFormatsInstantInZoneOfFormatter() {
+        DatePickerCellRenderer renderer = new DatePickerCellRenderer(Locale.US);
+        renderer.setFormatter(renderer.getFormatter().withZone(ZONE_ID));
+        renderer.setValue(Instant.parse("2021-03-04T23:00:00Z"));
+        assertEquals("3/4/21", renderer.getText());
+    }
+
+    @Test void rendererShowsValuesWithoutDateAsText() {
+        DatePickerCellRenderer renderer = new DatePickerCellRenderer(Locale.US);
+        renderer.setValue(LocalTime.of(12, 30));
+        assertEquals("12:30", renderer.getText());
+    }
+
+
+    private static DatePickerCellEditor createEditor() {
+        DatePickerCellEditor editor = new DatePickerCellEditor(Locale.US, ZONE_ID, DisplayMode.DATE_ONLY);
+        editor.getTableCellEditorComponent(new JTable(), LocalDate.of(2020, 6, 15), false, 0, 0);
+        return editor;
+    }
+
+    private static JFormattedTextField getDateField(final DatePickerCellEditor editor) {
+        for (Component component : editor.getDatePicker().getComponents()) {
+            if (component instanceof JFormattedTextField) { return (JFormattedTextField) component; }
+        }
+        throw new IllegalStateException("DatePicker has no date field");
+    }
+
+    private static void onEdt(final Runnable runnable) throws InterruptedException, InvocationTargetException {
+        SwingUtilities.invokeAndWait(runnable);
+    }
+}
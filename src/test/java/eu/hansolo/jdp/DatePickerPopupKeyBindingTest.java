@@ -0,0 +1,107 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Checks that Enter and Space only select the focused day while a day cell has
+ * the focus and not while the time spinner is edited.
+ */
+class DatePickerPopupKeyBindingTest {
+    private static final ZoneId ZONE_ID = ZoneId.of("UTC");
+
+
+    @Test void spaceInTimeSpinnerDoesNotSelectDay() throws Exception {
+        onEdt(() -> {
+            DatePickerPopup           popup = createPopup();
+            List<DatePickerEventType> types = recordEvents(popup);
+            pressKey(findSpinnerField(popup), KeyEvent.VK_SPACE);
+            pressKey(findSpinnerField(popup), KeyEvent.VK_ENTER);
+            assertTrue(types.stream().noneMatch(type -> DatePickerEventType.DATE_SELECTED == type), types.toString());
+        });
+    }
+
+    @Test void enterOnDayButtonSelectsFocusedDay() throws Exception {
+        onEdt(() -> {
+            DatePickerPopup           popup = createPopup();
+            List<DatePickerEventType> types = recordEvents(popup);
+            JButton                   day   = findDayButton(popup);
+            pressKey(day, KeyEvent.VK_RIGHT);
+            pressKey(day, KeyEvent.VK_ENTER);
+            assertEquals(List.of(DatePickerEventType.NEXT_DAY, DatePickerEventType.DATE_SELECTED), types);
+            assertEquals(16, popup.getSelectedDate().getDayOfMonth());
+        });
+    }
+
+
+    private static DatePickerPopup createPopup() {
+        ZonedDateTime selectedDate = ZonedDateTime.of(2020, 6, 15, 12, 0, 0, 0, ZONE_ID);
+        return new DatePickerPopup(Locale.US, false, true, selectedDate, ZONE_ID, DisplayMode.DATE_AND_TIME, Color.black, Color.red, GridStyle.BUTTONS);
+    }
+
+    private static List<DatePickerEventType> recordEvents(final DatePickerPopup popup) {
+        List<DatePickerEventType> types = new ArrayList<>();
+        popup.addDatePickerEventObserver(event -> types.add(event.getType()));
+        return types;
+    }
+
+    private static void pressKey(final JComponent component, final int keyCode) {
+        SwingUtilities.processKeyBindings(new KeyEvent(component, KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0, keyCode, KeyEvent.CHAR_UNDEFINED));
+    }
+
+    private static JFormattedTextField findSpinnerField(final DatePickerPopup popup) {
+        JSpinner spinner = find(popup, JSpinner.class, component -> true);
+        return ((JSpinner.DefaultEditor) spinner.getEditor()).getTextField();
+    }
+
+    private static JButton findDayButton(final DatePickerPopup popup) {
+        return find(popup, JButton.class, button -> "15".equals(button.getText()));
+    }
+
+    private static <T extends Component> T find(final Container container, final Class<T> type, final Predicate<T> filter) {
+        for (Component component : container.getComponents()) {
+            if (type.isInstance(component) && filter.test(type.cast(component))) { return type.cast(component); }
+            if (component instanceof Container) {
+                T found = find((Container) component, type, filter);
+                if (null != found) { return found; }
+            }
+        }
+        return null;
+    }
+
+    private static void onEdt(final Runnable runnable) throws InterruptedException, InvocationTargetException {
+        SwingUtilities.invokeAndWait(runnable);
+    }
+}
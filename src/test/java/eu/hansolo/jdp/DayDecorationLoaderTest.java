@@ -0,0 +1,50 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * Copyright 2020 Gerrit Grunwald.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package eu.hansolo.jdp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+/**
+ * Checks that a month whose provider failed is cached without decorations.
+ */
+class DayDecorationLoaderTest {
+
+    @Test void failingProviderIsOnlyCalledOncePerMonth() {
+        AtomicInteger       calls  = new AtomicInteger();
+        DayDecorationLoader loader = new DayDecorationLoader(yearMonth -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Backend not available");
+        }, Runnable::run, yearMonth -> {});
+        YearMonth yearMonth = YearMonth.of(2021, 4);
+
+        assertNull(loader.get(yearMonth));
+        DayDecoration[] decorations = loader.get(yearMonth);
+        assertNotNull(decorations);
+        for (DayDecoration decoration : decorations) { assertNull(decoration); }
+        loader.prefetch(yearMonth);
+        assertEquals(1, calls.get());
+    }
+}